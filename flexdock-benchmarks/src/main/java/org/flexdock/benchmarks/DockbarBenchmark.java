@@ -0,0 +1,166 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.awt.EventQueue;
+import java.awt.GraphicsEnvironment;
+import java.awt.Point;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JFrame;
+
+import org.flexdock.dockbar.DockbarManager;
+import org.flexdock.dockbar.activation.AnimationScheduler;
+import org.flexdock.dockbar.event.ActivationListener;
+import org.flexdock.docking.state.MinimizationManager;
+import org.flexdock.view.View;
+import org.flexdock.view.Viewport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rapid hover toggling over minimized views: each invocation moves
+ * the mouse onto the next dockbar button, activates its view and moves the
+ * mouse off again, without waiting for the slide-out to finish.  Every new
+ * activation retargets the animation still in flight.
+ * <p>
+ * At the end of each iteration the {@code AnimationScheduler} frame times
+ * and the live and peak thread counts are printed, since the point of the
+ * scheduler is to keep both flat however fast the mouse moves.  Dockbars
+ * need a real window, so this benchmark requires a display; on a build
+ * server run it under Xvfb, e.g.
+ * {@code xvfb-run java -jar benchmarks.jar DockbarBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class DockbarBenchmark {
+    @Param({"4", "16"})
+    public int views;
+
+    private JFrame frame;
+    private DockbarManager manager;
+    private View[] minimized;
+    private int next;
+    private final Runnable toggle = new Runnable() {
+        @Override
+        public void run() {
+            ActivationListener listener = manager.getActivationListener();
+            Point p = new Point(0, 0);
+            listener.mouseEntered(p);
+            manager.setActiveDockable(minimized[next]);
+            listener.mouseExited(p);
+        }
+    };
+
+    @Setup
+    public void setup() throws Exception {
+        if(GraphicsEnvironment.isHeadless()) {
+            throw new IllegalStateException("DockbarBenchmark requires a display.  Run it under Xvfb.");
+        }
+
+        EventQueue.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                Viewport viewport = new Viewport();
+                frame = new JFrame("DockbarBenchmark");
+                frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+                frame.getContentPane().add(viewport);
+                frame.setSize(LayoutGenerator.PORT_WIDTH, LayoutGenerator.PORT_HEIGHT);
+                frame.setVisible(true);
+
+                manager = DockbarManager.getInstance(frame);
+                int[] edges = {MinimizationManager.LEFT, MinimizationManager.RIGHT, MinimizationManager.BOTTOM};
+                minimized = new View[views];
+                for(int i=0; i<views; i++) {
+                    minimized[i] = new View("dockbar." + i, "View " + i);
+                    viewport.dock(minimized[i]);
+                    manager.minimize(minimized[i], edges[i%edges.length]);
+                }
+                frame.validate();
+            }
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() throws Exception {
+        EventQueue.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                AnimationScheduler.getInstance().resetFrameCounts();
+            }
+        });
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounts() throws Exception {
+        final AnimationScheduler scheduler = AnimationScheduler.getInstance();
+        final long[] frames = new long[3];
+        EventQueue.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                frames[0] = scheduler.getFrameCount();
+                frames[1] = scheduler.getAverageFrameTime();
+                frames[2] = scheduler.getMaxFrameTime();
+            }
+        });
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.println("AnimationScheduler: " + frames[0] + " frames, avg " + frames[1]
+                           + "us, max " + frames[2] + "us; threads: " + threads.getThreadCount()
+                           + " live, " + threads.getPeakThreadCount() + " peak");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        EventQueue.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                manager.setActiveDockable((String)null);
+                for(int i=0; i<minimized.length; i++) {
+                    manager.remove(minimized[i]);
+                }
+                frame.dispose();
+            }
+        });
+    }
+
+    @Benchmark
+    public void hoverToggle() throws Exception {
+        next = (next+1) % minimized.length;
+        EventQueue.invokeAndWait(toggle);
+    }
+}
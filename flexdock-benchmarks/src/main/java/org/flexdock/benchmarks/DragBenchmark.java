@@ -0,0 +1,158 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.awt.Container;
+import java.awt.EventQueue;
+import java.awt.GraphicsEnvironment;
+import java.awt.Point;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import org.flexdock.docking.defaults.DefaultDockingPort;
+import org.flexdock.docking.drag.DragGlasspane;
+import org.flexdock.docking.drag.DragOperation;
+import org.flexdock.docking.drag.DropTargetIndex;
+import org.flexdock.util.NestedComponents;
+import org.flexdock.util.RootWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code DragGlasspane.processDragEvent()} as the mouse sweeps over
+ * the generated layout, and on its own the drop target hit-test it starts
+ * with. With {@code indexed} set, the glasspane hit-tests against a
+ * {@code DropTargetIndex} built before the drag, as {@code DragPipeline}
+ * does; without it, every event walks the component tree.
+ * <p>
+ * The glasspane needs a real window, so this benchmark requires a display; on
+ * a build server run it under Xvfb, e.g.
+ * {@code xvfb-run java -jar benchmarks.jar DragBenchmark}.
+ * <p>
+ * Drag events are processed on the benchmark thread rather than the EDT so
+ * the measurement isn't dominated by {@code invokeAndWait()} hand-offs; the
+ * EDT only ever repaints the glasspane.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(1)
+public class DragBenchmark {
+    private static final int PATH_LENGTH = 1024;
+
+    @Param({"10", "100", "1000"})
+    public int dockables;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private LayoutGenerator generator;
+    private JFrame frame;
+    private DragGlasspane glasspane;
+    private DragOperation operation;
+    private MouseEvent[] path;
+    private Point[] contentPath;
+    private Container contentPane;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        if(GraphicsEnvironment.isHeadless()) {
+            throw new IllegalStateException("DragBenchmark requires a display.  Run it under Xvfb.");
+        }
+
+        generator = new LayoutGenerator("drag", dockables);
+        EventQueue.invokeAndWait(new Runnable() {
+            public void run() {
+                DefaultDockingPort port = generator.getDockingPort();
+                frame = new JFrame("DragBenchmark");
+                frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+                frame.getContentPane().add(port);
+                frame.setSize(LayoutGenerator.PORT_WIDTH, LayoutGenerator.PORT_HEIGHT);
+                frame.setVisible(true);
+                frame.validate();
+
+                RootWindow window = RootWindow.getRootContainer(frame);
+                glasspane = new DragGlasspane();
+                glasspane.setRootWindow(window);
+                glasspane.setCachedGlassPane(window.getGlassPane());
+                window.setGlassPane(glasspane);
+                if(indexed) {
+                    glasspane.buildDropTargetIndex();
+                }
+                glasspane.setVisible(true);
+
+                contentPane = window.getContentPane();
+                Point[] points = generator.createMousePath(PATH_LENGTH);
+                path = new MouseEvent[points.length];
+                contentPath = new Point[points.length];
+                for(int i=0; i<points.length; i++) {
+                    path[i] = new MouseEvent(port, MouseEvent.MOUSE_DRAGGED, 0, 0, points[i].x, points[i].y, 0, false);
+                    contentPath[i] = SwingUtilities.convertPoint(port, points[i], contentPane);
+                }
+                operation = new DragOperation(generator.getDockable(0).getComponent(), port, points[0]);
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        EventQueue.invokeAndWait(new Runnable() {
+            public void run() {
+                glasspane.clear();
+                frame.dispose();
+                generator.dispose();
+            }
+        });
+    }
+
+    @Benchmark
+    public String processDragEvent() {
+        next = (next+1) % path.length;
+        operation.updateMouse(path[next]);
+        glasspane.processDragEvent(operation);
+        return operation.getTargetRegion();
+    }
+
+    @Benchmark
+    public NestedComponents hitTest() {
+        next = (next+1) % contentPath.length;
+        DropTargetIndex index = glasspane.getDropTargetIndex();
+        if(index!=null) {
+            return index.getDropTargets(contentPath[next]);
+        }
+        return DropTargetIndex.findDropTargets(contentPane, contentPath[next]);
+    }
+}
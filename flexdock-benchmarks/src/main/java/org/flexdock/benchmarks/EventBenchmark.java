@@ -0,0 +1,180 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.util.EventListener;
+import java.util.concurrent.TimeUnit;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.DockingPort;
+import org.flexdock.docking.event.DockingEvent;
+import org.flexdock.event.Event;
+import org.flexdock.event.EventHandler;
+import org.flexdock.event.EventManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures synchronous {@code EventManager.dispatch()} throughput, in events
+ * per second, against a growing number of registered {@code EventHandlers}.
+ * <p>
+ * {@code handlers} counts the handlers this benchmark registers: all but the
+ * last reject every event, and the last one, registered after them, handles
+ * the benchmark's own event class.  Finding that handler is what the number
+ * of handlers makes more expensive.  {@code dispatchDockingEvent} sends a
+ * docking event to the same targets {@code DefaultDockingStrategy} notifies:
+ * the old port, the new port and the dockable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend="-Djava.awt.headless=true")
+public class EventBenchmark implements DockingConstants {
+    @Param({"1", "10", "50"})
+    public int handlers;
+
+    private LayoutGenerator generator;
+    private EventHandler[] registered;
+    private CountingListener listener;
+    private BenchmarkTarget target;
+    private BenchmarkEvent event;
+    private DockingEvent dockingEvent;
+    private Object[] targets;
+
+    @Setup
+    public void setup() {
+        registered = new EventHandler[handlers];
+        for(int i=0; i<handlers-1; i++) {
+            registered[i] = new DecoyHandler();
+        }
+        registered[handlers-1] = new BenchmarkHandler();
+        for(int i=0; i<handlers; i++) {
+            EventManager.addHandler(registered[i]);
+        }
+        listener = new CountingListener();
+        EventManager.addListener(listener);
+        target = new BenchmarkTarget(new CountingListener());
+        event = new BenchmarkEvent(this);
+
+        generator = new LayoutGenerator("event", 2);
+        generator.getDockingPort();
+        Dockable dockable = generator.getDockable(1);
+        DockingPort port = dockable.getDockingPort();
+        dockingEvent = new DockingEvent(dockable, port, port, DockingEvent.DOCKING_COMPLETE, null);
+        dockingEvent.setRegion(EAST_REGION);
+        targets = new Object[] {port, port, dockable};
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventManager.removeListener(listener);
+        for(int i=0; i<handlers; i++) {
+            EventManager.removeHandler(registered[i]);
+        }
+        generator.dispose();
+    }
+
+    @Benchmark
+    public int dispatch() {
+        EventManager.dispatch(event);
+        return listener.count;
+    }
+
+    @Benchmark
+    public int dispatchToTarget() {
+        EventManager.dispatch(event, target);
+        return target.listeners[0].count;
+    }
+
+    @Benchmark
+    public void dispatchDockingEvent() {
+        EventManager.dispatch(dockingEvent, targets);
+    }
+
+    @SuppressWarnings(value = { "serial" })
+    private static class BenchmarkEvent extends Event {
+        private BenchmarkEvent(Object src) {
+            super(src, 0);
+        }
+    }
+
+    private static class CountingListener implements EventListener {
+        private int count;
+    }
+
+    private static class BenchmarkTarget {
+        private final CountingListener[] listeners;
+
+        private BenchmarkTarget(CountingListener listener) {
+            listeners = new CountingListener[] {listener};
+        }
+    }
+
+    private static class BenchmarkHandler extends EventHandler {
+        @Override
+        public boolean acceptsEvent(Event evt) {
+            return evt instanceof BenchmarkEvent;
+        }
+
+        @Override
+        public boolean acceptsListener(EventListener listener) {
+            return listener instanceof CountingListener;
+        }
+
+        @Override
+        public void handleEvent(Event evt, EventListener listener, int eventType) {
+            ((CountingListener)listener).count++;
+        }
+
+        @Override
+        public EventListener[] getListeners(Object eventTarget) {
+            return eventTarget instanceof BenchmarkTarget? ((BenchmarkTarget)eventTarget).listeners: null;
+        }
+    }
+
+    private static class DecoyHandler extends EventHandler {
+        @Override
+        public boolean acceptsEvent(Event evt) {
+            return false;
+        }
+
+        @Override
+        public boolean acceptsListener(EventListener listener) {
+            return false;
+        }
+
+        @Override
+        public void handleEvent(Event evt, EventListener listener, int eventType) {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.flexdock.docking.defaults.DefaultDockingPort;
+import org.flexdock.docking.state.LayoutNode;
+import org.flexdock.perspective.LayoutBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures capturing a docked tree with {@code LayoutBuilder.createLayout()}
+ * and rebuilding it with {@code DefaultDockingPort.importLayout()}.
+ * <p>
+ * {@code importLayout()} binds the ports it creates to the nodes it is given,
+ * so each invocation imports a fresh copy of the captured tree into a fresh
+ * port, moving every dockable out of the previous one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend="-Djava.awt.headless=true")
+public class LayoutBenchmark {
+    @Param({"10", "100", "500", "2000"})
+    public int dockables;
+
+    private LayoutGenerator generator;
+    private LayoutNode template;
+    private LayoutNode node;
+    private DefaultDockingPort port;
+
+    @Setup
+    public void setup() {
+        generator = new LayoutGenerator("layout", dockables);
+        template = generator.createLayoutNode();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareImport() {
+        node = (LayoutNode)template.clone();
+        port = new DefaultDockingPort();
+        port.setSize(LayoutGenerator.PORT_WIDTH, LayoutGenerator.PORT_HEIGHT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.dispose();
+    }
+
+    @Benchmark
+    public LayoutNode createLayout() {
+        return LayoutBuilder.getInstance().createLayout(generator.getDockingPort());
+    }
+
+    @Benchmark
+    public DefaultDockingPort importLayout() {
+        port.importLayout(node);
+        return port;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Point;
+import java.util.Random;
+
+import javax.swing.JPanel;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.DockingManager;
+import org.flexdock.docking.defaults.DefaultDockingPort;
+import org.flexdock.docking.defaults.DockableComponentWrapper;
+import org.flexdock.docking.state.DockingPath;
+import org.flexdock.docking.state.DockingState;
+import org.flexdock.docking.state.LayoutNode;
+import org.flexdock.perspective.Layout;
+import org.flexdock.perspective.LayoutBuilder;
+import org.flexdock.perspective.Perspective;
+import org.flexdock.perspective.persist.PerspectiveModel;
+
+/**
+ * Builds synthetic docking layouts of an arbitrary size for the benchmarks.
+ * Dockables are docked into a balanced tree of splits, with every fourth
+ * dockable tabbed onto its parent, so that the depth of the resulting
+ * component hierarchy grows with the logarithm of the dockable count much
+ * like a real application would.
+ * <p>
+ * Everything generated here is deterministic for a given prefix and size, so
+ * results remain comparable between runs.
+ */
+public class LayoutGenerator implements DockingConstants {
+    public static final int PORT_WIDTH = 1600;
+    public static final int PORT_HEIGHT = 1200;
+
+    private final String prefix;
+    private final int size;
+    private Dockable[] dockables;
+    private DefaultDockingPort port;
+
+    public LayoutGenerator(String prefix, int size) {
+        this.prefix = prefix;
+        this.size = size;
+    }
+
+    public String getDockableId(int index) {
+        return prefix + "." + index;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Dockable[] getDockables() {
+        if(dockables==null) {
+            dockables = createDockables();
+        }
+        return dockables;
+    }
+
+    public Dockable getDockable(int index) {
+        return getDockables()[index];
+    }
+
+    /**
+     * Returns the root port with every generated dockable docked into it,
+     * sized and laid out so that region and drop target lookups have real
+     * bounds to work against.
+     */
+    public DefaultDockingPort getDockingPort() {
+        if(port==null) {
+            port = createDockingPort();
+        }
+        return port;
+    }
+
+    private Dockable[] createDockables() {
+        Dockable[] list = new Dockable[size];
+        for(int i=0; i<size; i++) {
+            list[i] = createDockable(getDockableId(i));
+        }
+        return list;
+    }
+
+    public static Dockable createDockable(String id) {
+        JPanel panel = new JPanel();
+        panel.setName(id);
+        return DockingManager.registerDockable(DockableComponentWrapper.create(panel, id, id));
+    }
+
+    private DefaultDockingPort createDockingPort() {
+        Dockable[] list = getDockables();
+        DefaultDockingPort root = new DefaultDockingPort(prefix + ".root");
+        root.setSize(PORT_WIDTH, PORT_HEIGHT);
+        if(list.length>0) {
+            DockingManager.dock(list[0], root, CENTER_REGION);
+        }
+        for(int i=1; i<list.length; i++) {
+            DockingManager.dock(list[i], list[(i-1)/2], getRegion(i), 0.5f);
+        }
+        layoutTree(root);
+        return root;
+    }
+
+    private static String getRegion(int index) {
+        if(index%4==0) {
+            return CENTER_REGION;
+        }
+        return index%2==0? SOUTH_REGION: EAST_REGION;
+    }
+
+    /**
+     * Lays out the whole hierarchy under {@code root}. The generated ports are
+     * never shown, so {@code validate()} alone won't reach them.
+     */
+    public static void layoutTree(Component root) {
+        if(!(root instanceof Container)) {
+            return;
+        }
+        Container c = (Container)root;
+        c.doLayout();
+        Component[] children = c.getComponents();
+        for(int i=0; i<children.length; i++) {
+            layoutTree(children[i]);
+        }
+    }
+
+    /**
+     * Returns {@code count} points spread pseudo-randomly over the root port,
+     * for benchmarks that sweep the mouse across the layout.
+     */
+    public Point[] createMousePath(int count) {
+        Random random = new Random(size);
+        Point[] points = new Point[count];
+        for(int i=0; i<count; i++) {
+            points[i] = new Point(random.nextInt(PORT_WIDTH), random.nextInt(PORT_HEIGHT));
+        }
+        return points;
+    }
+
+    /**
+     * Captures the docked tree as a {@code LayoutNode}, as it would be when
+     * persisting the current perspective.
+     */
+    public LayoutNode createLayoutNode() {
+        return LayoutBuilder.getInstance().createLayout(getDockingPort());
+    }
+
+    public Layout createLayout() {
+        Layout layout = new Layout();
+        for(int i=0; i<size; i++) {
+            String id = getDockableId(i);
+            DockingState state = new DockingState(id);
+            state.setRegion(getRegion(i));
+            state.setSplitRatio(0.5f);
+            if(i>0) {
+                state.setRelativeParentId(getDockableId((i-1)/2));
+            }
+            state.setPath(DockingPath.create(getDockable(i)));
+            layout.setDockingState(id, state);
+        }
+        layout.setRestorationLayout(createLayoutNode());
+        return layout;
+    }
+
+    public PerspectiveModel createPerspectiveModel(int perspectives) {
+        Perspective[] list = new Perspective[perspectives];
+        for(int i=0; i<perspectives; i++) {
+            list[i] = new Perspective(prefix + ".perspective." + i, "Perspective " + i);
+            list[i].setLayout(createLayout());
+        }
+        return new PerspectiveModel(list[0].getPersistentId(), list[0].getPersistentId(), list);
+    }
+
+    /**
+     * Undocks and unregisters everything this generator created.
+     */
+    public void dispose() {
+        if(dockables==null) {
+            return;
+        }
+        for(int i=dockables.length-1; i>=0; i--) {
+            DockingManager.undock(dockables[i]);
+            DockingManager.unregisterDockable(dockables[i]);
+        }
+        dockables = null;
+        port = null;
+    }
+}
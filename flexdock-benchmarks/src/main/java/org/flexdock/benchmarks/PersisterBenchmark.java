@@ -0,0 +1,166 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.flexdock.perspective.persist.Persister;
+import org.flexdock.perspective.persist.PerspectiveModel;
+import org.flexdock.perspective.persist.binary.BinaryPersister;
+import org.flexdock.perspective.persist.xml.StaxPersister;
+import org.flexdock.perspective.persist.xml.XMLPersister;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures storing and loading a {@code PerspectiveModel} with each of the
+ * available persisters. The model holds a few perspectives, each describing
+ * every generated dockable.
+ * <p>
+ * Besides the time, each iteration reports {@code peakHeapBytes}, the most the
+ * heap grew during a single store or load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend="-Djava.awt.headless=true")
+public class PersisterBenchmark {
+    private static final int PERSPECTIVES = 4;
+
+    @Param({"10", "100", "500", "2000"})
+    public int dockables;
+
+    @Param({"xml", "stax", "binary"})
+    public String format;
+
+    private LayoutGenerator generator;
+    private Persister persister;
+    private PerspectiveModel model;
+    private byte[] stored;
+
+    @Setup
+    public void setup() throws Exception {
+        generator = new LayoutGenerator("persist", dockables);
+        persister = createPersister(format);
+        model = generator.createPerspectiveModel(PERSPECTIVES);
+        stored = write().toByteArray();
+    }
+
+    private static Persister createPersister(String format) {
+        if("stax".equals(format)) {
+            return StaxPersister.newDefaultInstance();
+        }
+        if("binary".equals(format)) {
+            return BinaryPersister.newDefaultInstance();
+        }
+        return XMLPersister.newDefaultInstance();
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.dispose();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream store(HeapUsage heap) throws Exception {
+        return write();
+    }
+
+    @Benchmark
+    public PerspectiveModel load(HeapUsage heap) throws Exception {
+        return persister.load(new ByteArrayInputStream(stored));
+    }
+
+    private ByteArrayOutputStream write() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(stored==null? 8192: stored.length);
+        persister.store(out, model);
+        return out;
+    }
+
+    /**
+     * Tracks the peak heap use of each invocation through the heap
+     * {@code MemoryPoolMXBean}s, whose peaks are reset just before the call.
+     * The pools peak independently, so their sum is an upper bound.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapUsage {
+        private final List pools = new ArrayList();
+        private long baseline;
+
+        public long peakHeapBytes;
+
+        public HeapUsage() {
+            for(Iterator it=ManagementFactory.getMemoryPoolMXBeans().iterator(); it.hasNext();) {
+                MemoryPoolMXBean pool = (MemoryPoolMXBean)it.next();
+                if(pool.getType()==MemoryType.HEAP && pool.isValid()) {
+                    pools.add(pool);
+                }
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            peakHeapBytes = 0;
+        }
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            long used = 0;
+            for(Iterator it=pools.iterator(); it.hasNext();) {
+                MemoryPoolMXBean pool = (MemoryPoolMXBean)it.next();
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+            baseline = used;
+        }
+
+        @TearDown(Level.Invocation)
+        public void record() {
+            long peak = 0;
+            for(Iterator it=pools.iterator(); it.hasNext();) {
+                peak += ((MemoryPoolMXBean)it.next()).getPeakUsage().getUsed();
+            }
+            peakHeapBytes = Math.max(peakHeapBytes, peak-baseline);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.flexdock.docking.defaults.ComponentPool;
+import org.flexdock.docking.defaults.DefaultDockingPort;
+import org.flexdock.docking.state.LayoutNode;
+import org.flexdock.perspective.Layout;
+import org.flexdock.perspective.PerspectiveManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures repeated perspective loads that rebuild the whole docking tree,
+ * with and without {@code ComponentPool}.  Layout patching and the
+ * perspective cache are turned off, so every load discards the split panes,
+ * sub-ports and tabbed panes of the previous one.  Each load applies a fresh
+ * copy of the layout, as a perspective read from storage or reset to its
+ * default would be, so no containers are bound to its nodes beforehand.
+ * <p>
+ * Run with {@code -prof gc} to compare the allocation rate and GC counts.
+ * The pool's hit rate is printed when a trial ends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend="-Djava.awt.headless=true")
+public class PoolingBenchmark {
+    @Param({"100", "500"})
+    public int dockables;
+
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    private LayoutGenerator generator;
+    private LayoutNode template;
+    private Layout layout;
+    private boolean patching;
+    private int cachedCount;
+
+    @Setup
+    public void setup() {
+        patching = PerspectiveManager.isLayoutPatching();
+        cachedCount = PerspectiveManager.getCachedPerspectiveCount();
+        PerspectiveManager.setLayoutPatching(false);
+        PerspectiveManager.setCachedPerspectiveCount(0);
+        ComponentPool.getInstance().setEnabled(pooled);
+        ComponentPool.getInstance().resetStatistics();
+
+        generator = new LayoutGenerator("pooling", dockables);
+        layout = generator.createLayout();
+        template = layout.getRestorationLayout();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareLoad() {
+        layout.setRestorationLayout((LayoutNode)template.clone());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ComponentPool pool = ComponentPool.getInstance();
+        if(pooled) {
+            System.out.println("ComponentPool: " + pool.getHitCount() + "/" + pool.getRequestCount()
+                               + " requests served from the pool (" + Math.round(pool.getHitRate()*100) + "%)");
+        }
+        pool.setEnabled(false);
+        generator.dispose();
+        PerspectiveManager.setLayoutPatching(patching);
+        PerspectiveManager.setCachedPerspectiveCount(cachedCount);
+    }
+
+    @Benchmark
+    public DefaultDockingPort loadPerspective() {
+        DefaultDockingPort port = generator.getDockingPort();
+        layout.apply(port);
+        return port;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.props.DockablePropertySet;
+import org.flexdock.docking.props.PropertyManager;
+import org.flexdock.docking.props.ScopedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures scoped property resolution through {@code PropertyManager}. None of
+ * the generated dockables override their properties, so every lookup falls
+ * through to the framework defaults, which is the common case. With
+ * {@code cached} off, the resolved-value cache is disabled and every lookup
+ * searches the scope maps, as it did before the cache existed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend="-Djava.awt.headless=true")
+public class PropertyBenchmark implements DockingConstants {
+    @Param({"10", "100", "500", "2000"})
+    public int dockables;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private LayoutGenerator generator;
+    private Dockable[] list;
+    private ScopedMap[] propertySets;
+    private int next;
+
+    @Setup
+    public void setup() {
+        PropertyManager.setResolvedValueCaching(cached);
+        generator = new LayoutGenerator("props", dockables);
+        list = generator.getDockables();
+        propertySets = new ScopedMap[list.length];
+        for(int i=0; i<list.length; i++) {
+            propertySets[i] = (ScopedMap)PropertyManager.getDockablePropertySet(list[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        PropertyManager.setResolvedValueCaching(true);
+        generator.dispose();
+    }
+
+    @Benchmark
+    public Object getProperty() {
+        next = (next+1) % propertySets.length;
+        return PropertyManager.getProperty(DockablePropertySet.REGION_SIZE_NORTH, propertySets[next]);
+    }
+
+    @Benchmark
+    public Float getRegionInset() {
+        next = (next+1) % list.length;
+        return PropertyManager.getDockablePropertySet(list[next]).getRegionInset(EAST_REGION);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.awt.Component;
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+import org.flexdock.docking.DockingPort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code DefaultDockingPort.getRegion()} for a sweep of mouse
+ * positions over the port holding the first generated dockable. Deeper ports
+ * shrink to a few pixels in the larger layouts, while this one keeps the same
+ * size regardless of how many dockables share the layout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend="-Djava.awt.headless=true")
+public class RegionBenchmark {
+    private static final int PATH_LENGTH = 1024;
+
+    @Param({"10", "100", "500", "2000"})
+    public int dockables;
+
+    private LayoutGenerator generator;
+    private DockingPort port;
+    private Point[] path;
+    private int next;
+
+    @Setup
+    public void setup() {
+        generator = new LayoutGenerator("region", dockables);
+        generator.getDockingPort();
+        port = generator.getDockable(0).getDockingPort();
+
+        // keep the sweep inside the port so every lookup does real work
+        Component c = (Component)port;
+        int width = Math.max(c.getWidth(), 1);
+        int height = Math.max(c.getHeight(), 1);
+        path = generator.createMousePath(PATH_LENGTH);
+        for(int i=0; i<path.length; i++) {
+            path[i].x %= width;
+            path[i].y %= height;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.dispose();
+    }
+
+    @Benchmark
+    public String getRegion() {
+        next = (next+1) % path.length;
+        return port.getRegion(path[next]);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.flexdock.plaf.Configurator;
+import org.flexdock.plaf.icons.IconResourceFactory;
+import org.flexdock.plaf.theme.Theme;
+import org.flexdock.plaf.theme.UIFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures what installing a theme at startup costs.  Both benchmarks drop
+ * the themes, UI delegates and icon resources built so far, then build the
+ * theme again.  {@code coldCache} also clears the parsed theme documents in
+ * {@code Configurator}, so it includes reading and parsing
+ * {@code flexdock-themes-default.xml} and {@code flexdock-themes.xml}, as
+ * the first theme lookup of an application does.  {@code warmCache} starts
+ * from the already parsed and compiled theme model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend="-Djava.awt.headless=true")
+public class ThemeBenchmark {
+    @Param({"default", "eclipse2", "win32"})
+    public String theme;
+
+    @Benchmark
+    public Theme coldCache() {
+        Configurator.clearCache();
+        return loadTheme();
+    }
+
+    @Benchmark
+    public Theme warmCache() {
+        return loadTheme();
+    }
+
+    private Theme loadTheme() {
+        UIFactory.clearCache();
+        IconResourceFactory.clearCache();
+        return UIFactory.getTheme(theme);
+    }
+}
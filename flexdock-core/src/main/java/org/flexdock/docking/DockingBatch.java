@@ -0,0 +1,281 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+
+import org.flexdock.docking.state.LayoutNode;
+import org.flexdock.event.Event;
+import org.flexdock.event.EventManager;
+import org.flexdock.util.SwingUtility;
+
+/**
+ * Groups a series of docking operations into a single transaction. While a
+ * batch is open on the current thread, {@code DockingEvents} reporting a
+ * finished operation are queued instead of dispatched ({@code UNDOCKING_STARTED}
+ * is still delivered right away), revalidation requests are coalesced per component
+ * and split divider resets are postponed. Everything is flushed once when the
+ * outermost batch is committed, after the whole layout has been built.
+ * <p>
+ * Before a batch first modifies a docking tree, the layout of its root
+ * {@code DockingPort} is captured so that {@code rollback()} can restore it.
+ * Dockables floated during a batch are not restored.
+ * <p>
+ * Batches nest. Only the outermost {@code commit()} flushes, while a
+ * {@code rollback()} at any level discards the whole batch.
+ * <p>
+ * Application code should use the {@code DockingManager} batch methods
+ * rather than this class directly.
+ *
+ * @see DockingManager#beginBatch()
+ * @see DockingManager#commitBatch()
+ * @see DockingManager#rollbackBatch()
+ */
+public class DockingBatch {
+    private static final ThreadLocal CURRENT = new ThreadLocal();
+
+    private int depth;
+    // root DockingPort -> LayoutNode captured before the first change, or null
+    private final LinkedHashMap rootLayouts = new LinkedHashMap();
+    private final ArrayList events = new ArrayList();
+    private final Map revalidate = new IdentityHashMap();
+    private final Map repaint = new IdentityHashMap();
+    // key -> Runnable.  a later action for the same key replaces the earlier one.
+    private final LinkedHashMap deferred = new LinkedHashMap();
+
+    private DockingBatch() {
+
+    }
+
+    private static DockingBatch getCurrent() {
+        return (DockingBatch)CURRENT.get();
+    }
+
+    public static boolean isActive() {
+        return getCurrent()!=null;
+    }
+
+    public static void begin() {
+        DockingBatch batch = getCurrent();
+        if(batch==null) {
+            batch = new DockingBatch();
+            CURRENT.set(batch);
+        }
+        batch.depth++;
+    }
+
+    /**
+     * Closes the innermost batch. If it was the outermost batch, deferred
+     * divider resets run, coalesced components are revalidated and queued
+     * events are dispatched in their original order.
+     *
+     * @throws IllegalStateException
+     *             if no batch is open on the current thread
+     */
+    public static void commit() {
+        DockingBatch batch = getCurrent();
+        if(batch==null) {
+            throw new IllegalStateException("No docking batch in progress.");
+        }
+
+        batch.depth--;
+        if(batch.depth>0) {
+            return;
+        }
+
+        CURRENT.remove();
+        batch.flush();
+    }
+
+    /**
+     * Discards the current batch, including any enclosing batches, and restores
+     * every docking tree modified within it. Queued events are dropped. Does
+     * nothing if no batch is open on the current thread.
+     */
+    public static void rollback() {
+        DockingBatch batch = getCurrent();
+        if(batch==null) {
+            return;
+        }
+
+        CURRENT.remove();
+        batch.restore();
+    }
+
+    /**
+     * Captures the layout of the root {@code DockingPort} above {@code port}
+     * if the current batch hasn't done so yet. Must be called before
+     * {@code port} is modified.
+     */
+    public static void prepare(DockingPort port) {
+        DockingBatch batch = getCurrent();
+        if(batch==null || port==null) {
+            return;
+        }
+
+        DockingPort root = getRoot(port);
+        if(batch.rootLayouts.containsKey(root)) {
+            return;
+        }
+
+        LayoutNode node = root.exportLayout();
+        // detach the captured tree from the live ports and split panes
+        batch.rootLayouts.put(root, node==null? null: (LayoutNode)node.clone());
+    }
+
+    private static DockingPort getRoot(DockingPort port) {
+        DockingPort root = port;
+        Component c = (Component)port;
+        while((c=SwingUtilities.getAncestorOfClass(DockingPort.class, c))!=null) {
+            root = (DockingPort)c;
+        }
+        return root;
+    }
+
+    public static void dispatch(Event evt) {
+        dispatch(evt, null);
+    }
+
+    public static void dispatch(Event evt, Object[] targets) {
+        DockingBatch batch = getCurrent();
+        if(batch==null) {
+            if(targets==null) {
+                EventManager.dispatch(evt);
+            } else {
+                EventManager.dispatch(evt, targets);
+            }
+            return;
+        }
+        batch.events.add(new Object[] {evt, targets});
+    }
+
+    public static void revalidate(Component comp) {
+        DockingBatch batch = getCurrent();
+        if(batch==null) {
+            SwingUtility.revalidate(comp);
+        } else if(comp!=null) {
+            batch.revalidate.put(comp, comp);
+        }
+    }
+
+    public static void repaint(Component comp) {
+        DockingBatch batch = getCurrent();
+        if(batch==null) {
+            SwingUtility.repaint(comp);
+        } else if(comp!=null) {
+            batch.repaint.put(comp, comp);
+        }
+    }
+
+    /**
+     * Postpones {@code action} until the current batch is committed. A later
+     * action registered under the same {@code key} replaces this one.
+     *
+     * @return {@code true} if the action was deferred, {@code false} if no
+     *         batch is open and the caller should run it immediately
+     */
+    public static boolean deferUntilCommit(Object key, Runnable action) {
+        DockingBatch batch = getCurrent();
+        if(batch==null) {
+            return false;
+        }
+        batch.deferred.remove(key);
+        batch.deferred.put(key, action);
+        return true;
+    }
+
+    private void flush() {
+        for(Iterator it=deferred.values().iterator(); it.hasNext();) {
+            ((Runnable)it.next()).run();
+        }
+
+        for(Iterator it=revalidate.keySet().iterator(); it.hasNext();) {
+            Component comp = (Component)it.next();
+            if(!hasAncestorIn(comp, revalidate)) {
+                SwingUtility.revalidate(comp);
+            }
+        }
+        for(Iterator it=repaint.keySet().iterator(); it.hasNext();) {
+            Component comp = (Component)it.next();
+            if(!hasAncestorIn(comp, repaint)) {
+                SwingUtility.repaint(comp);
+            }
+        }
+
+        for(int i=0; i<events.size(); i++) {
+            Object[] entry = (Object[])events.get(i);
+            Object[] targets = (Object[])entry[1];
+            if(targets==null) {
+                EventManager.dispatch((Event)entry[0]);
+            } else {
+                EventManager.dispatch((Event)entry[0], targets);
+            }
+        }
+    }
+
+    private static boolean hasAncestorIn(Component comp, Map set) {
+        for(Component c=comp.getParent(); c!=null; c=c.getParent()) {
+            if(set.containsKey(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void clear(DockingPort port) {
+        for(Iterator it=port.getDockables().iterator(); it.hasNext();) {
+            Component comp = ((Dockable)it.next()).getComponent();
+            if(comp.getParent()!=null) {
+                comp.getParent().remove(comp);
+            }
+        }
+        port.clear();
+    }
+
+    private void restore() {
+        // empty every captured tree first.  a dockable moved between two of
+        // them must be released by one before the other can take it back, and
+        // dockables added during the batch must not linger in discarded sub-ports.
+        for(Iterator it=rootLayouts.entrySet().iterator(); it.hasNext();) {
+            Map.Entry entry = (Map.Entry)it.next();
+            if(entry.getValue()!=null) {
+                clear((DockingPort)entry.getKey());
+            }
+        }
+
+        for(Iterator it=rootLayouts.entrySet().iterator(); it.hasNext();) {
+            Map.Entry entry = (Map.Entry)it.next();
+            DockingPort port = (DockingPort)entry.getKey();
+            LayoutNode node = (LayoutNode)entry.getValue();
+            if(node!=null) {
+                port.importLayout(node);
+                SwingUtility.revalidate((Component)port);
+                SwingUtility.repaint((Component)port);
+            }
+        }
+    }
+}
@@ -2642,6 +2642,88 @@ public class DockingManager implements DockingConstants {
         return undock(resolveDockable(dockable));
     }
 
+    /**
+     * Opens a docking batch on the current thread. Until the matching
+     * {@code commitBatch()}, {@code DockingEvents} fired by docking and
+     * undocking operations are queued rather than dispatched, revalidation
+     * requests are coalesced, and split divider resets are postponed until
+     * the layout is complete. This makes building or rearranging a large
+     * layout programmatically much cheaper.
+     * <p>
+     * Batches may be nested; only the outermost {@code commitBatch()} flushes
+     * the queued work. Every {@code beginBatch()} must be paired with either
+     * {@code commitBatch()} or {@code rollbackBatch()}, typically in a
+     * {@code try}/{@code catch} block. {@code batch(Runnable)} does this for
+     * you.
+     *
+     * @see #commitBatch()
+     * @see #rollbackBatch()
+     * @see #batch(Runnable)
+     */
+    public static void beginBatch() {
+        DockingBatch.begin();
+    }
+
+    /**
+     * Closes the innermost docking batch opened by {@code beginBatch()}. When
+     * the outermost batch is committed, deferred split divider resets are
+     * applied, affected containers are revalidated once, and queued
+     * {@code DockingEvents} are dispatched in their original order.
+     *
+     * @throws IllegalStateException
+     *             if no batch is open on the current thread
+     * @see #beginBatch()
+     */
+    public static void commitBatch() {
+        DockingBatch.commit();
+    }
+
+    /**
+     * Abandons the current docking batch, including any enclosing batches.
+     * Queued {@code DockingEvents} are discarded, and every docking tree
+     * modified during the batch is restored to the layout it had before its
+     * first modification. Does nothing if no batch is open on the current
+     * thread.
+     *
+     * @see #beginBatch()
+     */
+    public static void rollbackBatch() {
+        DockingBatch.rollback();
+    }
+
+    /**
+     * Returns {@code true} if a docking batch is open on the current thread.
+     *
+     * @return {@code true} if a docking batch is open on the current thread
+     * @see #beginBatch()
+     */
+    public static boolean isBatchActive() {
+        return DockingBatch.isActive();
+    }
+
+    /**
+     * Runs the specified {@code Runnable} within a docking batch. The batch is
+     * committed if the {@code Runnable} completes normally. If it throws, the
+     * batch is rolled back and the exception is rethrown.
+     *
+     * @param operations
+     *            the docking operations to run as a single batch
+     * @see #beginBatch()
+     */
+    public static void batch(Runnable operations) {
+        beginBatch();
+        try {
+            operations.run();
+        } catch (RuntimeException e) {
+            rollbackBatch();
+            throw e;
+        } catch (Error e) {
+            rollbackBatch();
+            throw e;
+        }
+        commitBatch();
+    }
+
     /**
      * Ensures that a valid {@code DragManager} has been installed as a listener
      * for all of the specified {@code Dockable's} drag source
@@ -0,0 +1,367 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking.defaults;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import javax.swing.JComponent;
+import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
+import javax.swing.UIManager;
+
+import org.flexdock.docking.DockingBatch;
+import org.flexdock.docking.DockingManager;
+import org.flexdock.docking.DockingPort;
+
+/**
+ * Recycles the split panes, sub-ports and tabbed panes that make up a docking
+ * layout, so rebuilding a layout doesn't have to construct new containers,
+ * UI delegates and listeners for every node.
+ * <p>
+ * Only components created through {@code register()} are ever recycled.
+ * {@code DefaultDockingStrategy} and {@code DefaultDockingPort} register the
+ * containers they create, and ask for a recycled one of the same class before
+ * creating a new one.  Containers are returned to the pool when the docking
+ * framework discards them, e.g. when undocking collapses a split layout.
+ * Instances are pooled by their exact class, or by the key they were
+ * registered with, up to {@code getCapacity()} per key.  Tabbed panes are
+ * keyed by the class of the port that created them, since
+ * {@code createTabbedPane()} overrides may install listeners of their own.
+ * <p>
+ * Pooling is off by default.  While it is on, a container that has been
+ * discarded may later reappear somewhere else in the layout, so application
+ * code should not hold on to split panes, sub-ports or tabbed panes that it
+ * did not create itself.
+ */
+public class ComponentPool {
+    private static final ComponentPool SINGLETON = new ComponentPool();
+    private static final String POOL_STATE = "ComponentPool.POOL_STATE";
+    private static final String POOL_KEY = "ComponentPool.POOL_KEY";
+
+    private boolean enabled;
+    private int capacity = 1024;
+    // key -> ArrayList of idle instances
+    private HashMap pools = new HashMap();
+    // key -> int[] {requests, hits}
+    private HashMap statistics = new HashMap();
+
+    public static ComponentPool getInstance() {
+        return SINGLETON;
+    }
+
+    private ComponentPool() {
+        UIManager.addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                // idle instances still carry the UI delegates of the old look and feel
+                if("lookAndFeel".equals(evt.getPropertyName())) {
+                    clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * Discards all idle instances.
+     */
+    public synchronized void clear() {
+        pools.clear();
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if(!enabled) {
+            clear();
+        }
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of idle instances kept per key.
+     */
+    public synchronized void setCapacity(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        for(Iterator it=pools.values().iterator(); it.hasNext();) {
+            ArrayList pool = (ArrayList)it.next();
+            while(pool.size()>this.capacity) {
+                pool.remove(pool.size()-1);
+            }
+        }
+    }
+
+    /**
+     * Returns an idle instance registered under the specified key, or
+     * {@code null} if there is none or pooling is off.  Unless registered
+     * with a key of their own, components are keyed by their exact class.
+     * The caller is responsible for configuring it as if it had just been
+     * created.
+     */
+    public synchronized Object acquire(Object key) {
+        if(!enabled) {
+            return null;
+        }
+
+        int[] stats = getStatistics(key);
+        stats[0]++;
+        ArrayList pool = (ArrayList)pools.get(key);
+        if(pool==null || pool.isEmpty()) {
+            return null;
+        }
+
+        JComponent comp = (JComponent)pool.remove(pool.size()-1);
+        comp.putClientProperty(POOL_STATE, Boolean.FALSE);
+        stats[1]++;
+        return comp;
+    }
+
+    /**
+     * Marks the specified component as one that may be recycled once the
+     * docking framework discards it.  It is pooled by its exact class.
+     *
+     * @return {@code comp}
+     */
+    public JComponent register(JComponent comp) {
+        return register(comp, comp==null? null: comp.getClass());
+    }
+
+    /**
+     * Marks the specified component as one that may be recycled once the
+     * docking framework discards it, and that is only to be handed out again
+     * by {@code acquire()} for the same key.
+     *
+     * @return {@code comp}
+     */
+    public JComponent register(JComponent comp, Object key) {
+        if(comp!=null) {
+            comp.putClientProperty(POOL_KEY, key);
+            comp.putClientProperty(POOL_STATE, Boolean.FALSE);
+        }
+        return comp;
+    }
+
+    /**
+     * Returns the specified component to the pool.  Only registered components
+     * that are empty and have no parent are accepted.
+     *
+     * @return {@code true} if the component was pooled
+     */
+    public synchronized boolean release(Component comp) {
+        if(!enabled || !(comp instanceof JComponent)) {
+            return false;
+        }
+
+        JComponent jcomp = (JComponent)comp;
+        if(jcomp.getClientProperty(POOL_STATE)!=Boolean.FALSE || jcomp.getParent()!=null || !isEmpty(jcomp)) {
+            return false;
+        }
+
+        Object key = jcomp.getClientProperty(POOL_KEY);
+        ArrayList pool = (ArrayList)pools.get(key);
+        if(pool==null) {
+            pool = new ArrayList();
+            pools.put(key, pool);
+        }
+        if(pool.size()>=capacity) {
+            return false;
+        }
+
+        jcomp.putClientProperty(POOL_STATE, Boolean.TRUE);
+        jcomp.setBounds(0, 0, 0, 0);
+        pool.add(jcomp);
+        return true;
+    }
+
+    /**
+     * Releases the specified component once the current
+     * {@code DockingBatch}, if any, has been committed.  Events queued by the
+     * batch may still refer to it until then.
+     */
+    public void releaseLater(final Component comp) {
+        if(!isEnabled() || comp==null) {
+            return;
+        }
+
+        Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                release(comp);
+            }
+        };
+        if(!DockingBatch.deferUntilCommit(comp, r)) {
+            r.run();
+        }
+    }
+
+    /**
+     * Takes the specified component out of its parent and releases it along
+     * with every split pane, sub-port and tabbed pane below it.  Any
+     * {@code Dockables} within it are left without a parent.
+     */
+    public void releaseTree(Component comp) {
+        if(!isEnabled() || comp==null) {
+            return;
+        }
+
+        Container parent = comp.getParent();
+        if(parent!=null) {
+            parent.remove(comp);
+        }
+        releaseSubtree(comp);
+        release(comp);
+    }
+
+    private void releaseSubtree(Component comp) {
+        // a dockable may be a container of any sort.  it's not ours to empty.
+        if(DockingManager.getDockable(comp)!=null) {
+            return;
+        }
+
+        Component[] children;
+        if(comp instanceof DockingPort) {
+            children = new Component[] {((DockingPort)comp).getDockedComponent()};
+        } else if(comp instanceof JSplitPane) {
+            JSplitPane split = (JSplitPane)comp;
+            children = new Component[] {split.getLeftComponent(), split.getRightComponent()};
+        } else if(comp instanceof JTabbedPane) {
+            // only the tabs.  the UI may have added components of its own.
+            JTabbedPane tabs = (JTabbedPane)comp;
+            children = new Component[tabs.getTabCount()];
+            for(int i=0; i<children.length; i++) {
+                children[i] = tabs.getComponentAt(i);
+            }
+        } else {
+            return;
+        }
+
+        // empty the children before taking them out, so that each removal
+        // only has to notify a small subtree
+        for(int i=0; i<children.length; i++) {
+            if(children[i]!=null) {
+                releaseSubtree(children[i]);
+            }
+        }
+
+        if(comp instanceof DockingPort) {
+            ((Container)comp).removeAll();
+        } else if(comp instanceof JSplitPane) {
+            JSplitPane split = (JSplitPane)comp;
+            split.setLeftComponent(null);
+            split.setRightComponent(null);
+            if(split instanceof DockingSplitPane) {
+                ((DockingSplitPane)split).cleanup();
+            }
+        } else {
+            ((JTabbedPane)comp).removeAll();
+        }
+
+        for(int i=0; i<children.length; i++) {
+            release(children[i]);
+        }
+    }
+
+    private boolean isEmpty(JComponent comp) {
+        if(comp instanceof DockingPort) {
+            return ((DockingPort)comp).getDockedComponent()==null;
+        }
+        if(comp instanceof JSplitPane) {
+            return ((JSplitPane)comp).getLeftComponent()==null && ((JSplitPane)comp).getRightComponent()==null;
+        }
+        if(comp instanceof JTabbedPane) {
+            return ((JTabbedPane)comp).getTabCount()==0;
+        }
+        return false;
+    }
+
+    private int[] getStatistics(Object key) {
+        int[] stats = (int[])statistics.get(key);
+        if(stats==null) {
+            stats = new int[2];
+            statistics.put(key, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the number of times a component of the specified key was
+     * asked for while pooling was on.
+     */
+    public synchronized int getRequestCount(Object key) {
+        return getStatistics(key)[0];
+    }
+
+    /**
+     * Returns the number of times a recycled component of the specified
+     * key could be handed out.
+     */
+    public synchronized int getHitCount(Object key) {
+        return getStatistics(key)[1];
+    }
+
+    public synchronized float getHitRate(Object key) {
+        int[] stats = getStatistics(key);
+        return stats[0]==0? 0: stats[1]/(float)stats[0];
+    }
+
+    public synchronized int getRequestCount() {
+        int count = 0;
+        for(Iterator it=statistics.values().iterator(); it.hasNext();) {
+            count += ((int[])it.next())[0];
+        }
+        return count;
+    }
+
+    public synchronized int getHitCount() {
+        int count = 0;
+        for(Iterator it=statistics.values().iterator(); it.hasNext();) {
+            count += ((int[])it.next())[1];
+        }
+        return count;
+    }
+
+    public synchronized float getHitRate() {
+        int requests = getRequestCount();
+        return requests==0? 0: getHitCount()/(float)requests;
+    }
+
+    /**
+     * Returns the number of idle instances of the specified key.
+     */
+    public synchronized int getPooledCount(Object key) {
+        ArrayList pool = (ArrayList)pools.get(key);
+        return pool==null? 0: pool.size();
+    }
+
+    public synchronized void resetStatistics() {
+        statistics.clear();
+    }
+}
@@ -45,7 +45,6 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.image.BufferedImage;
 import java.io.Serializable;
 import java.util.*;
 
@@ -252,7 +251,9 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
 
     private boolean rootPort;
 
-    private BufferedImage dragImage;
+    private DragSnapshot dragSnapshot;
+
+    private boolean dragImageShown;
 
     private Timer timer;
 
@@ -764,6 +765,10 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
     /**
      * If this method returns {@code null}, implementations may throw
      * NullPointerExceptions. Do not expect NPE checking.
+     * <p>
+     * While {@link ComponentPool} is enabled, a tabbed pane created here may
+     * later be handed to another port of the same class instead of calling
+     * this method again, so it is only ever configured once.
      *
      * @return a valid JTabbedPane.
      */
@@ -772,6 +777,18 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
                            .getInsets(LookAndFeelSettings.TAB_PANE_BORDER_INSETS);
         int tabPlacement = getInitTabPlacement();
 
+        UIManager.put(LookAndFeelSettings.TAB_PANE_BORDER_INSETS, createTabBorderInsets(tabPlacement, oldInsets));
+        JTabbedPane pane = new JTabbedPane();
+        pane.setTabPlacement(tabPlacement);
+        UIManager.put(LookAndFeelSettings.TAB_PANE_BORDER_INSETS, oldInsets);
+
+        TabbedDragListener tdl = new TabbedDragListener();
+        pane.addMouseListener(tdl);
+        pane.addMouseMotionListener(tdl);
+        return pane;
+    }
+
+    private Insets createTabBorderInsets(int tabPlacement, Insets oldInsets) {
         int edgeInset = LookAndFeelSettings.getTabEdgeInset(tabPlacement);
 
         Insets newInsets = new Insets(0, 0, 0, 0);
@@ -789,15 +806,36 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
                 newInsets.right = edgeInset >= 0 ? edgeInset : oldInsets.right;
                 break;
         }
+        return newInsets;
+    }
 
-        UIManager.put(LookAndFeelSettings.TAB_PANE_BORDER_INSETS, newInsets);
-        JTabbedPane pane = new JTabbedPane();
-        pane.setTabPlacement(tabPlacement);
-        UIManager.put(LookAndFeelSettings.TAB_PANE_BORDER_INSETS, oldInsets);
+    /**
+     * Returns a tabbed pane recycled from another port of the same class, or
+     * a new one from {@code createTabbedPane()}. Pooled panes are kept apart
+     * by port class, so a pane only ever carries what this class's
+     * {@code createTabbedPane()} installed on it.
+     */
+    private JTabbedPane acquireTabbedPane() {
+        // a List compares by value, so the same key comes out for every port of this class
+        Object key = Arrays.asList(new Object[] {JTabbedPane.class, getClass()});
+        ComponentPool pool = ComponentPool.getInstance();
+        JTabbedPane pane = (JTabbedPane) pool.acquire(key);
+        if (pane == null) {
+            pane = createTabbedPane();
+            pool.register(pane, key);
+            return pane;
+        }
 
-        TabbedDragListener tdl = new TabbedDragListener();
-        pane.addMouseListener(tdl);
-        pane.addMouseMotionListener(tdl);
+        int tabPlacement = getInitTabPlacement();
+        if (pane.getTabPlacement() != tabPlacement) {
+            // the recycled pane's UI was installed for another tab placement
+            Insets oldInsets = UIManager
+                               .getInsets(LookAndFeelSettings.TAB_PANE_BORDER_INSETS);
+            UIManager.put(LookAndFeelSettings.TAB_PANE_BORDER_INSETS, createTabBorderInsets(tabPlacement, oldInsets));
+            pane.setTabPlacement(tabPlacement);
+            pane.updateUI();
+            UIManager.put(LookAndFeelSettings.TAB_PANE_BORDER_INSETS, oldInsets);
+        }
         return pane;
     }
 
@@ -1014,8 +1052,23 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
 
     private void resetSplitDividerLocation() {
         Component c = getDockedComponent();
-        if (c instanceof JSplitPane) {
-            deferSplitDividerReset((JSplitPane) c);
+        if (!(c instanceof JSplitPane)) {
+            return;
+        }
+
+        final JSplitPane splitPane = (JSplitPane) c;
+        // within a docking batch, position the divider once the whole layout
+        // has been built, and only if the split pane survived the batch.
+        boolean deferred = DockingBatch.deferUntilCommit(splitPane, new Runnable() {
+            @Override
+            public void run() {
+                if (getDockedComponent() == splitPane) {
+                    deferSplitDividerReset(splitPane);
+                }
+            }
+        });
+        if (!deferred) {
+            deferSplitDividerReset(splitPane);
         }
     }
 
@@ -1060,12 +1113,12 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
         if (docked instanceof JTabbedPane) {
             tabs = (JTabbedPane) docked;
             addTab(tabs, comp);
-            tabs.revalidate();
+            DockingBatch.revalidate(tabs);
             tabs.setSelectedIndex(tabs.getTabCount() - 1);
             return true;
         }
 
-        tabs = createTabbedPane();
+        tabs = acquireTabbedPane();
         // createTabbedPane() is protected and may be overridden, so we'll have
         // to check for a possible null case here. Though why anyone would
         // return a null, I don't know. Maybe we should throw a
@@ -1484,6 +1537,7 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
             parent.remove(this);
             ((DefaultDockingPort) grandParent).reevaluateContainerTree(); // LABEL
             // 1
+            ComponentPool.getInstance().releaseLater(this);
         } else if (docked instanceof JSplitPane) {
             // in this case, we're the parent of a docking wrapper. this implies
             // that we're splitting our real estate between two components. (in
@@ -1505,6 +1559,7 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
             // and return.
             if (left == right) {
                 removeAll();
+                ComponentPool.getInstance().releaseLater(wrapper);
                 return;
             }
 
@@ -1521,14 +1576,19 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
                 ((DockingSplitPane) wrapper).cleanup();
             }
             super.remove(wrapper);
+            ComponentPool.getInstance().releaseLater(wrapper);
 
+            Component emptied = null;
             if (comp instanceof DefaultDockingPort) {
+                emptied = comp;
                 comp = ((DockingPort) comp).getDockedComponent();
             }
 
             if (comp != null) {
                 setComponent(comp);
             }
+            // the sibling port has handed its content over to us
+            ComponentPool.getInstance().releaseLater(emptied);
         }
     }
 
@@ -1555,6 +1615,7 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
         if (comp != null) {
             setComponent(comp);
         }
+        ComponentPool.getInstance().releaseLater(tabs);
 
         Container parent = getParent();
         Container grandParent = parent == null ? null : parent.getParent();
@@ -1567,6 +1628,7 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
                 && grandParent instanceof DefaultDockingPort) {
             parent.remove(this);
             ((DefaultDockingPort) grandParent).reevaluateContainerTree();
+            ComponentPool.getInstance().releaseLater(this);
         }
     }
 
@@ -2016,22 +2078,54 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
      *            otherwise.
      */
     public void setDragInProgress(boolean inProgress) {
-        if (inProgress && dragImage != null) {
-            return;
-        }
-
-        if (!inProgress && dragImage == null) {
+        if (inProgress == dragImageShown) {
             return;
         }
 
         if (inProgress) {
-            dragImage = SwingUtility.createImage(this);
+            // the snapshot buffer is kept between drags and only reallocated
+            // when our size changes
+            if (dragSnapshot == null) {
+                dragSnapshot = new DragSnapshot();
+            }
+            dragImageShown = dragSnapshot.capture(this);
         } else {
-            dragImage = null;
+            dragImageShown = false;
         }
         repaint();
     }
 
+    /**
+     * Returns the time, in microseconds, it took to capture the snapshot
+     * image shown during the most recent drag operation.
+     *
+     * @return the latest drag snapshot capture time, in microseconds
+     */
+    public long getDragSnapshotTime() {
+        return dragSnapshot == null ? 0 : dragSnapshot.getCaptureTime();
+    }
+
+    /**
+     * Returns an estimate of the memory, in bytes, currently held by the
+     * buffer used for drag snapshots.
+     *
+     * @return the size of the drag snapshot buffer, in bytes
+     */
+    public long getDragSnapshotMemory() {
+        return dragSnapshot == null ? 0 : dragSnapshot.getMemoryUsage();
+    }
+
+    @Override
+    public void removeNotify() {
+        // no point in holding on to a (possibly accelerated) buffer for a
+        // port that isn't displayed
+        if (dragSnapshot != null && !dragImageShown) {
+            dragSnapshot.dispose();
+            dragSnapshot = null;
+        }
+        super.removeNotify();
+    }
+
     /**
      * Overridden to provide enhancements during drag operations. Some
      * {@code DragPreview} implementations may by able to supply a
@@ -2049,12 +2143,19 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
      */
     @Override
     public void paint(Graphics g) {
-        if (dragImage == null) {
+        if (!dragImageShown) {
             super.paint(g);
             return;
         }
 
-        g.drawImage(dragImage, 0, 0, this);
+        // a snapshot whose buffer was lost re-renders itself through paintAll(),
+        // which has to reach the live tree rather than the snapshot again
+        dragImageShown = false;
+        try {
+            dragSnapshot.draw(g, this);
+        } finally {
+            dragImageShown = true;
+        }
     }
 
     /**
@@ -2118,12 +2219,27 @@ public class DefaultDockingPort extends JPanel implements DockingPort,
         }
 
         node.setUserObject(this);
+        if (ComponentPool.getInstance().isEnabled()) {
+            // the containers a node still refers to from an earlier export or
+            // import may have been recycled into another layout since
+            clearUserObjects(node);
+        }
         ArrayList splitPaneResizeList = new ArrayList();
         constructLayout(node, splitPaneResizeList);
         deferSplitPaneValidation(splitPaneResizeList);
         revalidate();
     }
 
+    private void clearUserObjects(LayoutNode node) {
+        for (Enumeration en = node.children(); en.hasMoreElements();) {
+            LayoutNode child = (LayoutNode) en.nextElement();
+            if (!(child instanceof DockableNode)) {
+                child.setUserObject(null);
+                clearUserObjects(child);
+            }
+        }
+    }
+
     private void constructLayout(LayoutNode node, ArrayList splitPaneResizeList) {
         // load the user object. this object isn't used here, but
         // LayoutNode should have a lazy-load mechanism for loading of
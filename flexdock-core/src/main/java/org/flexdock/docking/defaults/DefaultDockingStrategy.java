@@ -34,6 +34,7 @@ import javax.swing.plaf.basic.BasicSplitPaneDivider;
 import javax.swing.plaf.basic.BasicSplitPaneUI;
 
 import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingBatch;
 import org.flexdock.docking.DockingConstants;
 import org.flexdock.docking.DockingManager;
 import org.flexdock.docking.DockingPort;
@@ -45,6 +46,7 @@ import org.flexdock.docking.event.DockingEvent;
 import org.flexdock.docking.floating.frames.DockingFrame;
 import org.flexdock.docking.floating.frames.FloatingDockingPort;
 import org.flexdock.docking.state.FloatManager;
+import org.flexdock.docking.state.LayoutManager;
 import org.flexdock.event.EventManager;
 import org.flexdock.util.DockingUtility;
 import org.flexdock.util.RootWindow;
@@ -57,6 +59,7 @@ public class DefaultDockingStrategy implements DockingStrategy,
     DockingConstants {
 
     public static final String PREFERRED_PROPORTION = "DefaultDockingStrategy.PREFERRED_PROPORTION";
+    private static final String DIVIDER_LISTENER = "DefaultDockingStrategy.DIVIDER_LISTENER";
 
     private static double defaultResizeWeight = -1;
     private static boolean constantPercent;
@@ -369,6 +372,8 @@ public class DefaultDockingStrategy implements DockingStrategy,
 
         // cache the old parent
         DockingPort oldPort = dockable.getDockingPort();
+        DockingBatch.prepare(oldPort);
+        DockingBatch.prepare(port);
 
         // perform the drop operation.
         DockingResults results = dropComponent(dockable, port, region,
@@ -387,7 +392,7 @@ public class DefaultDockingStrategy implements DockingStrategy,
 
         // notify the old docking port, new dockingport,and dockable
         Object[] evtTargets = { oldPort, newPort, dockable };
-        EventManager.dispatch(evt, evtTargets);
+        DockingBatch.dispatch(evt, evtTargets);
 
         return results.success;
     }
@@ -562,7 +567,7 @@ public class DefaultDockingStrategy implements DockingStrategy,
         }
 
         results.success = target.dock(dockableCmp, region);
-        SwingUtility.revalidate((Component) target);
+        DockingBatch.revalidate((Component) target);
         return results;
     }
 
@@ -597,11 +602,21 @@ public class DefaultDockingStrategy implements DockingStrategy,
 
         boolean success = false;
         DockingPort dockingPort = DockingUtility.getParentDockingPort(dragSrc);
+        DockingBatch.prepare(dockingPort);
+
+        // record where the dockable came from while it is still docked.
+        // listeners may see UNDOCKING_STARTED only after the undock.
+        LayoutManager layoutManager = DockingManager.getLayoutManager();
+        if(layoutManager!=null) {
+            layoutManager.captureDockingState(dockable);
+        }
 
         // notify that we are about to undock
         Map dragContext = DragManager.getDragContext(dockable);
         DockingEvent dockingEvent = new DockingEvent(dockable, dockingPort,
                 dockingPort, DockingEvent.UNDOCKING_STARTED, dragContext);
+        // not queued by a batch. listeners read the dockable's position from
+        // this event, so it has to arrive while the dockable is still docked.
         EventManager.dispatch(dockingEvent);
         // if(dockingEvent.isConsumed())
         // return false;
@@ -620,8 +635,8 @@ public class DefaultDockingStrategy implements DockingStrategy,
         }
 
         if (rootWin != null) {
-            SwingUtility.revalidate(rootWin.getContentPane());
-            SwingUtility.repaint(rootWin.getContentPane());
+            DockingBatch.revalidate(rootWin.getContentPane());
+            DockingBatch.repaint(rootWin.getContentPane());
         }
 
         if (success) {
@@ -629,7 +644,7 @@ public class DefaultDockingStrategy implements DockingStrategy,
                                             DockingEvent.UNDOCKING_COMPLETE, dragContext);
             // notify the docking port and dockable
             Object[] evtTargets = { dockingPort, dockable };
-            EventManager.dispatch(dockingEvent, evtTargets);
+            DockingBatch.dispatch(dockingEvent, evtTargets);
         }
 
         return success;
@@ -719,7 +734,11 @@ public class DefaultDockingStrategy implements DockingStrategy,
     }
 
     protected DockingPort createDockingPortImpl(DockingPort base) {
-        return new DefaultDockingPort();
+        DockingPort port = (DockingPort) ComponentPool.getInstance().acquire(DefaultDockingPort.class);
+        if (port != null) {
+            return port;
+        }
+        return (DockingPort) ComponentPool.getInstance().register(new DefaultDockingPort());
     }
 
 
@@ -812,7 +831,9 @@ public class DefaultDockingStrategy implements DockingStrategy,
         // grab the divider from the UI and remove the border from it
         final BasicSplitPaneDivider divider = ((BasicSplitPaneUI) split.getUI())
                                               .getDivider();
-        if (divider != null) {
+        // a recycled split pane still has its divider listener
+        if (divider != null && SwingUtility.getClientProperty(split, DIVIDER_LISTENER) != divider) {
+            SwingUtility.putClientProperty(split, DIVIDER_LISTENER, divider);
             divider.setBorder(null);
 
             divider.addMouseListener(new MouseAdapter() {
@@ -885,7 +906,12 @@ public class DefaultDockingStrategy implements DockingStrategy,
     }
 
     protected JSplitPane createSplitPaneImpl(DockingPort base, String region) {
-        return new DockingSplitPane(base, region);
+        DockingSplitPane split = (DockingSplitPane) ComponentPool.getInstance().acquire(DockingSplitPane.class);
+        if (split != null) {
+            split.reinitialize(base, region);
+            return split;
+        }
+        return (JSplitPane) ComponentPool.getInstance().register(new DockingSplitPane(base, region));
     }
 
 
@@ -23,17 +23,24 @@ import java.awt.Component;
 import java.awt.Point;
 import java.awt.Polygon;
 import java.awt.Rectangle;
+import java.util.WeakHashMap;
 
 import org.flexdock.docking.Dockable;
 import org.flexdock.docking.DockingConstants;
 import org.flexdock.docking.DockingManager;
 import org.flexdock.docking.DockingPort;
 import org.flexdock.docking.RegionChecker;
+import org.flexdock.docking.drag.DragManager;
+import org.flexdock.docking.drag.DragOperation;
 
 /**
  * @author Christopher Butler
  */
 public class DefaultRegionChecker implements RegionChecker, DockingConstants {
+    private static final String[] REGIONS = {NORTH_REGION, SOUTH_REGION, EAST_REGION, WEST_REGION};
+
+    private final WeakHashMap boundsCache = new WeakHashMap();
+    private DragOperation cachedOperation;
 
     /**
      * Returns the docking region of the supplied {@code Component} that
@@ -104,12 +111,27 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
             return CENTER_REGION;
         }
 
+        // resolve the outer region bounds.  during a drag, these are
+        // computed once per component size and reused for every mouse move.
+        Rectangle[] outer;
+        CachedBounds cached = getCachedBounds(comp);
+        if (cached == null) {
+            outer = getOuterRegions(comp);
+        } else {
+            if (cached.outer == null) {
+                cached.outer = getOuterRegions(comp);
+            }
+            outer = cached.outer;
+        }
+        Rectangle north = outer[0];
+        Rectangle south = outer[1];
+        Rectangle east = outer[2];
+        Rectangle west = outer[3];
+
         // start with the north region
-        Rectangle north = getNorthRegion(comp);
         int rightX = north.x + north.width;
         if (north.contains(point)) {
             // check NORTH_WEST
-            Rectangle west = getWestRegion(comp);
             if (west.contains(point)) {
                 Polygon westPoly = new Polygon();
                 westPoly.addPoint(0, 0);
@@ -118,7 +140,6 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
                 return westPoly.contains(point) ? WEST_REGION : NORTH_REGION;
             }
             // check NORTH_EAST
-            Rectangle east = getEastRegion(comp);
             if (east.contains(point)) {
                 Polygon eastPoly = new Polygon();
                 eastPoly.addPoint(rightX, 0);
@@ -130,11 +151,9 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
         }
 
         // check with the south region
-        Rectangle south = getSouthRegion(comp);
         int bottomY = south.y + south.height;
         if (south.contains(point)) {
             // check SOUTH_WEST
-            Rectangle west = getWestRegion(comp);
             if (west.contains(point)) {
                 Polygon westPoly = new Polygon();
                 westPoly.addPoint(0, south.y);
@@ -143,7 +162,6 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
                 return westPoly.contains(point) ? WEST_REGION : SOUTH_REGION;
             }
             // check SOUTH_EAST
-            Rectangle east = getEastRegion(comp);
             if (east.contains(point)) {
                 Polygon eastPoly = new Polygon();
                 eastPoly.addPoint(east.y, south.y);
@@ -157,11 +175,9 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
         // Now check EAST and WEST. We've already checked NORTH and SOUTH, so we
         // don't have to
         // check for NE, SE, NW, and SW anymore.
-        Rectangle east = getEastRegion(comp);
         if (east.contains(point)) {
             return EAST_REGION;
         }
-        Rectangle west = getWestRegion(comp);
         if (west.contains(point)) {
             return WEST_REGION;
         }
@@ -263,6 +279,10 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
      * {@code height} for north/south</i>) and returns a {@code Rectangle} with
      * the resulting dimension, spanning the {@code Component} edge for the
      * specified region.
+     * <p>
+     * While a drag operation is in progress, the bounds are cached per
+     * {@code Component} and recomputed only when the {@code Component} is
+     * resized.
      *
      * @param c
      *            the {@code Component} whose region bounds are to be returned.
@@ -276,6 +296,15 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
     @Override
     public Rectangle getRegionBounds(Component c, String region) {
         if (c != null && region != null) {
+            CachedBounds cached = getCachedBounds(c);
+            int i = indexOf(region);
+            if (cached != null && i != -1) {
+                if (cached.regions[i] == null) {
+                    float size = getRegionSize(c, region);
+                    cached.regions[i] = calculateRegionalBounds(c, region, size);
+                }
+                return copy(cached.regions[i]);
+            }
             float size = getRegionSize(c, region);
             return calculateRegionalBounds(c, region, size);
         }
@@ -297,6 +326,10 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
      * {@code height} for north/south</i>) and returns a {@code Rectangle} with
      * the resulting dimension, spanning the {@code Component} edge for the
      * specified region.
+     * <p>
+     * While a drag operation is in progress, the bounds are cached per
+     * {@code Component} and recomputed only when the {@code Component} is
+     * resized.
      *
      * @param c
      *            the {@code Component} whose sibling bounds are to be returned.
@@ -310,12 +343,70 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
     @Override
     public Rectangle getSiblingBounds(Component c, String region) {
         if (c != null && region != null) {
+            CachedBounds cached = getCachedBounds(c);
+            int i = indexOf(region);
+            if (cached != null && i != -1) {
+                if (cached.siblings[i] == null) {
+                    float size = getSiblingSize(c, region);
+                    cached.siblings[i] = calculateRegionalBounds(c, region, size);
+                }
+                return copy(cached.siblings[i]);
+            }
             float size = getSiblingSize(c, region);
             return calculateRegionalBounds(c, region, size);
         }
         return null;
     }
 
+    /**
+     * Returns the cached region bounds for the specified {@code Component}, or
+     * {@code null} if no drag operation is in progress. Region bounds only
+     * depend on the {@code Component} size and its {@code Dockable's} region
+     * insets, which don't change while the user is dragging, so they are
+     * computed once per drag and recomputed if the {@code Component} is
+     * resized.
+     */
+    private CachedBounds getCachedBounds(Component c) {
+        DragOperation operation = DragManager.getCurrentDragOperation();
+        synchronized (boundsCache) {
+            if (operation != cachedOperation) {
+                boundsCache.clear();
+                cachedOperation = operation;
+            }
+            if (operation == null) {
+                return null;
+            }
+
+            int width = c.getWidth();
+            int height = c.getHeight();
+            CachedBounds cached = (CachedBounds) boundsCache.get(c);
+            if (cached == null || cached.width != width || cached.height != height) {
+                cached = new CachedBounds(width, height);
+                boundsCache.put(c, cached);
+            }
+            return cached;
+        }
+    }
+
+    private Rectangle[] getOuterRegions(Component comp) {
+        return new Rectangle[] {getNorthRegion(comp), getSouthRegion(comp),
+                                getEastRegion(comp), getWestRegion(comp)
+                               };
+    }
+
+    private static int indexOf(String region) {
+        for (int i = 0; i < REGIONS.length; i++) {
+            if (REGIONS[i].equals(region)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Rectangle copy(Rectangle r) {
+        return r == null ? null : new Rectangle(r);
+    }
+
     protected Rectangle calculateRegionalBounds(Component c, String region,
             float size) {
         if (c == null || region == null) {
@@ -518,4 +609,17 @@ public class DefaultRegionChecker implements RegionChecker, DockingConstants {
         return getDockingInset(size, DockingManager.getDefaultSiblingSize(),
                                MAX_SIBILNG_SIZE, MIN_SIBILNG_SIZE);
     }
+
+    private static class CachedBounds {
+        private final int width;
+        private final int height;
+        private final Rectangle[] regions = new Rectangle[REGIONS.length];
+        private final Rectangle[] siblings = new Rectangle[REGIONS.length];
+        private Rectangle[] outer;
+
+        private CachedBounds(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
 }
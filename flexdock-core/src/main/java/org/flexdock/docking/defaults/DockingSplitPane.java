@@ -315,6 +315,25 @@ public class DockingSplitPane extends JSplitPane implements DockingConstants {
         super.doLayout();
     }
 
+    /**
+     * Puts a pooled split pane back into the state of one just created for
+     * the specified {@code DockingPort} and {@code region}.
+     *
+     * @see ComponentPool
+     */
+    void reinitialize(DockingPort port, String region) {
+        this.region = region;
+        this.dockingPort = port;
+        controllerInTopLeft = !DockingUtility.isRegionTopLeft(region);
+        setResizeWeight(controllerInTopLeft ? 1 : 0);
+
+        dividerLocDetermined = false;
+        initialDividerRatio = .5;
+        percent = -1;
+        constantPercent = false;
+        super.setDividerLocation(-1);
+    }
+
     /**
      * Releases any internal references to external objects to aid garbage
      * collection. This method is {@code public} and may be invoked manually for
@@ -0,0 +1,178 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking.defaults;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Reusable image of a component's appearance, shown in place of the live
+ * component while a drag operation is in progress.  The snapshot is rendered
+ * into a {@code VolatileImage} when the component's graphics configuration
+ * supports it, and into a {@code BufferedImage} otherwise.  Either buffer is
+ * kept between drags and only reallocated when the component's size (or
+ * graphics configuration) changes.
+ */
+class DragSnapshot {
+    /**
+     * System property which, when {@code "true"}, forces drag snapshots to be
+     * rendered into a plain {@code BufferedImage}.
+     */
+    static final String DISABLE_VOLATILE = "drag.snapshot.volatile.disabled";
+
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int MAX_RENDER_ATTEMPTS = 3;
+
+    private VolatileImage volatileImage;
+    private BufferedImage bufferedImage;
+    private long captureNanos;
+
+    /**
+     * Paints the component into the snapshot buffer, reallocating it only if
+     * necessary.
+     *
+     * @return {@code false} if the component has no size and nothing could be
+     *         captured
+     */
+    boolean capture(Component comp) {
+        long start = System.nanoTime();
+        int width = comp.getWidth();
+        int height = comp.getHeight();
+        if(width<=0 || height<=0) {
+            return false;
+        }
+
+        GraphicsConfiguration gc = comp.getGraphicsConfiguration();
+        if(gc!=null && !Boolean.getBoolean(DISABLE_VOLATILE) && !GraphicsEnvironment.isHeadless()) {
+            bufferedImage = null;
+            renderVolatile(comp, gc, width, height);
+        } else {
+            releaseVolatile();
+            renderBuffered(comp, width, height);
+        }
+        captureNanos = System.nanoTime() - start;
+        return true;
+    }
+
+    /**
+     * Draws the snapshot.  If the contents of a volatile buffer have been lost
+     * in the meantime, it is re-rendered from the component first.
+     */
+    void draw(Graphics g, Component comp) {
+        if(volatileImage!=null) {
+            GraphicsConfiguration gc = comp.getGraphicsConfiguration();
+            if(gc!=null && volatileImage.validate(gc)!=VolatileImage.IMAGE_OK) {
+                renderVolatile(comp, gc, volatileImage.getWidth(), volatileImage.getHeight());
+            }
+            g.drawImage(volatileImage, 0, 0, comp);
+        } else if(bufferedImage!=null) {
+            g.drawImage(bufferedImage, 0, 0, comp);
+        }
+    }
+
+    boolean isAccelerated() {
+        return volatileImage!=null;
+    }
+
+    /**
+     * Returns the time, in microseconds, the last capture took.
+     */
+    long getCaptureTime() {
+        return captureNanos / 1000;
+    }
+
+    /**
+     * Returns an estimate of the memory, in bytes, held by the snapshot
+     * buffer.
+     */
+    long getMemoryUsage() {
+        if(volatileImage!=null) {
+            return (long)volatileImage.getWidth() * volatileImage.getHeight() * BYTES_PER_PIXEL;
+        }
+        if(bufferedImage!=null) {
+            return (long)bufferedImage.getWidth() * bufferedImage.getHeight() * BYTES_PER_PIXEL;
+        }
+        return 0;
+    }
+
+    /**
+     * Releases the snapshot buffer.
+     */
+    void dispose() {
+        releaseVolatile();
+        if(bufferedImage!=null) {
+            bufferedImage.flush();
+            bufferedImage = null;
+        }
+    }
+
+    private void renderVolatile(Component comp, GraphicsConfiguration gc, int width, int height) {
+        if(volatileImage==null || volatileImage.getWidth()!=width || volatileImage.getHeight()!=height
+                || volatileImage.validate(gc)==VolatileImage.IMAGE_INCOMPATIBLE) {
+            releaseVolatile();
+            volatileImage = gc.createCompatibleVolatileImage(width, height);
+        }
+
+        int attempts = 0;
+        do {
+            if(volatileImage.validate(gc)==VolatileImage.IMAGE_INCOMPATIBLE) {
+                volatileImage.flush();
+                volatileImage = gc.createCompatibleVolatileImage(width, height);
+            }
+            paint(comp, volatileImage.createGraphics(), width, height);
+        } while(volatileImage.contentsLost() && ++attempts<MAX_RENDER_ATTEMPTS);
+    }
+
+    private void renderBuffered(Component comp, int width, int height) {
+        if(bufferedImage==null || bufferedImage.getWidth()!=width || bufferedImage.getHeight()!=height) {
+            bufferedImage = (BufferedImage)comp.createImage(width, height);
+            if(bufferedImage==null) {
+                bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+        }
+        paint(comp, bufferedImage.createGraphics(), width, height);
+    }
+
+    private void paint(Component comp, Graphics2D g, int width, int height) {
+        try {
+            // a reused buffer still holds the previous snapshot
+            Color bg = comp.getBackground();
+            g.setColor(bg==null? Color.WHITE: bg);
+            g.fillRect(0, 0, width, height);
+            comp.paintAll(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void releaseVolatile() {
+        if(volatileImage!=null) {
+            volatileImage.flush();
+            volatileImage = null;
+        }
+    }
+
+}
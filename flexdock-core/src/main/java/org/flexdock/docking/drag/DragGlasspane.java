@@ -26,15 +26,16 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Polygon;
+import java.awt.Rectangle;
 import java.util.Map;
 
 import javax.swing.JComponent;
-import javax.swing.SwingUtilities;
 
 import org.flexdock.docking.Dockable;
 import org.flexdock.docking.DockingConstants;
 import org.flexdock.docking.DockingManager;
 import org.flexdock.docking.DockingPort;
+import org.flexdock.docking.drag.effects.DefaultPreview;
 import org.flexdock.docking.drag.effects.DragPreview;
 import org.flexdock.docking.drag.effects.EffectsManager;
 import org.flexdock.util.NestedComponents;
@@ -42,6 +43,8 @@ import org.flexdock.util.RootWindow;
 
 @SuppressWarnings(value = { "serial" })
 public class DragGlasspane extends JComponent implements DockingConstants {
+    // previews may stroke slightly outside of their polygon bounds
+    private static final int DIRTY_PADDING = 2;
 
     private NestedComponents currentDropTargets;
     private Component cachedGlassPane;
@@ -51,6 +54,11 @@ public class DragGlasspane extends JComponent implements DockingConstants {
     private boolean previewInit;
     private Polygon previewPoly;
     private DragOperation currentDragToken;
+    private DropTargetIndex dropTargetIndex;
+    private Polygon lastPreview;
+    private Rectangle lastPreviewBounds;
+    private DockingPort lastPort;
+    private String lastRegion;
 
     public DragGlasspane() {
         setLayout(null);
@@ -69,14 +77,64 @@ public class DragGlasspane extends JComponent implements DockingConstants {
     }
 
     public void setRootWindow(RootWindow rootWindow) {
+        if(this.rootWindow!=rootWindow) {
+            dropTargetIndex = null;
+        }
         this.rootWindow = rootWindow;
     }
 
+    /**
+     * Clears all state left over from a drag operation so that this glasspane
+     * can be reused for the next one.  The drop target index is kept and
+     * rebuilt when the glasspane is installed again.
+     */
+    void reset() {
+        cachedGlassPane = null;
+        postPainter = null;
+        previewDelegate = null;
+        previewInit = false;
+        previewPoly = null;
+        currentDragToken = null;
+        currentDropTargets = null;
+        lastPreview = null;
+        lastPreviewBounds = null;
+        lastPort = null;
+        lastRegion = null;
+    }
+
+    /**
+     * Indexes the drop targets within the root window's content pane. Drag
+     * events processed by this glasspane will hit-test against the index
+     * rather than walking the component tree.
+     */
+    public void buildDropTargetIndex() {
+        Container c = rootWindow==null? null: rootWindow.getContentPane();
+        if(c==null) {
+            dropTargetIndex = null;
+            return;
+        }
+
+        if(dropTargetIndex==null || dropTargetIndex.getRoot()!=c) {
+            dropTargetIndex = new DropTargetIndex(c);
+        }
+        dropTargetIndex.rebuild();
+    }
+
+    public DropTargetIndex getDropTargetIndex() {
+        return dropTargetIndex;
+    }
+
     private NestedComponents getDropTargets(DragOperation token) {
         Container c = rootWindow.getContentPane();
         Point currMouse = token.getCurrentMouse(c);
-        Component deep = SwingUtilities.getDeepestComponentAt(c, currMouse.x, currMouse.y);
-        return NestedComponents.find(deep, Dockable.class, DockingPort.class);
+        if(currMouse==null) {
+            return null;
+        }
+
+        if(dropTargetIndex!=null && dropTargetIndex.getRoot()==c) {
+            return dropTargetIndex.getDropTargets(currMouse);
+        }
+        return DropTargetIndex.findDropTargets(c, currMouse);
     }
 
     public void processDragEvent(DragOperation token) {
@@ -111,8 +169,54 @@ public class DragGlasspane extends JComponent implements DockingConstants {
         // create the preview-polygon
         createPreviewPolygon(token, port, hover,  region);
 
-        // repaint
-        repaint();
+        // skip the repaint entirely if nothing has changed since the last event
+        if(port==lastPort && isSameRegion(region, lastRegion) && isSamePreview(previewPoly, lastPreview)) {
+            return;
+        }
+
+        Rectangle oldBounds = lastPreviewBounds;
+        lastPort = port;
+        lastRegion = region;
+        // snapshot the polygon.  some previews modify it while painting.
+        lastPreview = previewPoly==null? null: new Polygon(previewPoly.xpoints, previewPoly.ypoints, previewPoly.npoints);
+        lastPreviewBounds = lastPreview==null? null: lastPreview.getBounds();
+
+        repaintPreview(oldBounds, lastPreviewBounds);
+    }
+
+    private boolean isSameRegion(String region, String last) {
+        return region==null? last==null: region.equals(last);
+    }
+
+    private boolean isSamePreview(Polygon poly, Polygon last) {
+        if(poly==null || last==null) {
+            return poly==last;
+        }
+
+        int len = poly.npoints;
+        if(len!=last.npoints) {
+            return false;
+        }
+        for(int i=0; i<len; i++) {
+            if(poly.xpoints[i]!=last.xpoints[i] || poly.ypoints[i]!=last.ypoints[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void repaintPreview(Rectangle oldBounds, Rectangle newBounds) {
+        // we only know where the default previews paint.  anything else
+        // gets the entire glasspane repainted.
+        if(!(previewDelegate instanceof DefaultPreview)) {
+            repaint();
+            return;
+        }
+
+        Rectangle dirty = oldBounds==null? newBounds: newBounds==null? oldBounds: oldBounds.union(newBounds);
+        if(dirty!=null) {
+            repaint(dirty.x-DIRTY_PADDING, dirty.y-DIRTY_PADDING, dirty.width+DIRTY_PADDING*2, dirty.height+DIRTY_PADDING*2);
+        }
     }
 
     private String findRegion(DockingPort hoverPort, Dockable hoverDockable, Point mousePoint) {
@@ -159,7 +263,14 @@ public class DragGlasspane extends JComponent implements DockingConstants {
         if(currentDropTargets!=null) {
             currentDropTargets = null;
         }
-        repaint();
+
+        Rectangle oldBounds = lastPreviewBounds;
+        previewPoly = null;
+        lastPreview = null;
+        lastPreviewBounds = null;
+        lastPort = null;
+        lastRegion = null;
+        repaintPreview(oldBounds, null);
     }
 
     @Override
@@ -23,9 +23,12 @@ import java.awt.Component;
 import java.awt.EventQueue;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.HashMap;
+
+import javax.swing.Timer;
 
 import org.flexdock.docking.DockingConstants;
 import org.flexdock.docking.DockingPort;
@@ -36,10 +39,34 @@ import org.flexdock.util.RootWindow;
 import org.flexdock.util.SwingUtility;
 
 public class DragPipeline {
+    /**
+     * System property key used during framework initialization to determine
+     * whether drag events received off the event dispatch thread are
+     * coalesced. If {@code "true"}, only the most recent pending drag event is
+     * processed and at most one update is processed per frame.
+     */
+    public static final String COALESCE_DRAG_EVENTS = "drag.coalesce.events";
+
+    /**
+     * System property key used during framework initialization to determine
+     * the frame budget, in milliseconds, for coalesced drag events.
+     */
+    public static final String DRAG_FRAME_BUDGET = "drag.frame.budget";
+
+    private static final int DEFAULT_FRAME_BUDGET = 16;
+    private static final Object COUNTER_LOCK = new Object();
+
+    private static boolean coalescingEnabled = Boolean.getBoolean(COALESCE_DRAG_EVENTS);
+    private static int frameBudget = Math.max(0, Integer.getInteger(DRAG_FRAME_BUDGET, DEFAULT_FRAME_BUDGET).intValue());
+    private static long processedEvents;
+    private static long droppedEvents;
+    private static long openCount;
+    private static long openNanos;
+    private static long maxOpenNanos;
+    private static long lastOpenNanos;
 
     private GlassPaneMonitor paneMonitor;
     private RootWindow[] windows;
-    private HashMap rootWindowsByBounds;
     private DragGlasspane currentGlasspane;
     private DragGlasspane newGlassPane;
     private Rectangle[] windowBounds;
@@ -49,11 +76,135 @@ public class DragPipeline {
     private DragOperation dragToken;
     private RubberBand rubberBand;
 
+    private final Object pendingLock = new Object();
+    private MouseEvent pendingEvent;
+    private boolean flushScheduled;
+    private volatile long lastFlush;
+    private Timer flushTimer;
+
     public DragPipeline() {
         paneMonitor = new GlassPaneMonitor();
         rubberBand = EffectsManager.getRubberBand();
     }
 
+    /**
+     * Returns {@code true} if drag events received off the event dispatch
+     * thread are coalesced so that only the most recent one is processed.
+     *
+     * @return {@code true} if drag events are coalesced
+     * @see #COALESCE_DRAG_EVENTS
+     */
+    public static boolean isCoalescingEnabled() {
+        return coalescingEnabled;
+    }
+
+    public static void setCoalescingEnabled(boolean enabled) {
+        coalescingEnabled = enabled;
+    }
+
+    /**
+     * Returns the minimum time, in milliseconds, between two coalesced drag
+     * updates.
+     *
+     * @return the frame budget in milliseconds
+     * @see #DRAG_FRAME_BUDGET
+     */
+    public static int getFrameBudget() {
+        return frameBudget;
+    }
+
+    public static void setFrameBudget(int millis) {
+        frameBudget = Math.max(0, millis);
+    }
+
+    /**
+     * Returns the number of drag events processed by all pipelines since the
+     * counters were last reset.
+     *
+     * @return the number of processed drag events
+     */
+    public static long getProcessedEventCount() {
+        synchronized(COUNTER_LOCK) {
+            return processedEvents;
+        }
+    }
+
+    /**
+     * Returns the number of drag events discarded by all pipelines since the
+     * counters were last reset because a newer drag event superseded them.
+     *
+     * @return the number of dropped drag events
+     */
+    public static long getDroppedEventCount() {
+        synchronized(COUNTER_LOCK) {
+            return droppedEvents;
+        }
+    }
+
+    /**
+     * Returns the number of drag operations started since the counters were
+     * last reset.
+     *
+     * @return the number of opened pipelines
+     */
+    public static long getOpenCount() {
+        synchronized(COUNTER_LOCK) {
+            return openCount;
+        }
+    }
+
+    /**
+     * Returns the time, in microseconds, the most recent drag operation took
+     * to start, i.e. to discover the target windows and install their
+     * glasspanes.
+     *
+     * @return the latest drag-start latency in microseconds
+     */
+    public static long getLastOpenTime() {
+        synchronized(COUNTER_LOCK) {
+            return lastOpenNanos / 1000;
+        }
+    }
+
+    /**
+     * Returns the average drag-start latency, in microseconds, since the
+     * counters were last reset.
+     *
+     * @return the average drag-start latency in microseconds
+     */
+    public static long getAverageOpenTime() {
+        synchronized(COUNTER_LOCK) {
+            return openCount==0? 0: openNanos / openCount / 1000;
+        }
+    }
+
+    /**
+     * Returns the longest drag-start latency, in microseconds, since the
+     * counters were last reset.
+     *
+     * @return the maximum drag-start latency in microseconds
+     */
+    public static long getMaxOpenTime() {
+        synchronized(COUNTER_LOCK) {
+            return maxOpenNanos / 1000;
+        }
+    }
+
+    /**
+     * Resets the drag event counters as well as the drag-start latency
+     * statistics.
+     */
+    public static void resetEventCounts() {
+        synchronized(COUNTER_LOCK) {
+            processedEvents = 0;
+            droppedEvents = 0;
+            openCount = 0;
+            openNanos = 0;
+            maxOpenNanos = 0;
+            lastOpenNanos = 0;
+        }
+    }
+
     public boolean isOpen() {
         return open;
     }
@@ -83,6 +234,7 @@ public class DragPipeline {
     }
 
     private void openImpl(DragOperation operation) {
+        long start = System.nanoTime();
         // check to see if we're going to support heavyweight dockables for this operation
         heavyweightDockableSupportted = Boolean.getBoolean(DockingConstants.HEAVYWEIGHT_DOCKABLES);
 
@@ -91,15 +243,13 @@ public class DragPipeline {
         // turn the current drag operation on
         setCurrentDragOperation(operation);
 
-        windows = RootWindow.getVisibleWindows();
+        windows = DragWindowRegistry.getInstance().getVisibleWindows();
 
         windowBounds = new Rectangle[windows.length];
-        rootWindowsByBounds = new HashMap();
 
         for(int i=0; i<windows.length; i++) {
-            applyGlassPane(windows[i], createGlassPane());
+            applyGlassPane(windows[i], createGlassPane(windows[i]));
             windowBounds[i] = windows[i].getBounds();
-            rootWindowsByBounds.put(windowBounds[i], windows[i]);
         }
 
         // kill the rubberband if floating is not allowed
@@ -109,10 +259,20 @@ public class DragPipeline {
 
         operation.start();
         open = true;
+        recordOpenTime(System.nanoTime() - start);
     }
 
-    private DragGlasspane createGlassPane() {
-        DragGlasspane pane = new DragGlasspane();
+    private static void recordOpenTime(long nanos) {
+        synchronized(COUNTER_LOCK) {
+            openCount++;
+            openNanos += nanos;
+            lastOpenNanos = nanos;
+            maxOpenNanos = Math.max(maxOpenNanos, nanos);
+        }
+    }
+
+    private DragGlasspane createGlassPane(RootWindow win) {
+        DragGlasspane pane = DragWindowRegistry.getInstance().getGlassPane(win);
         pane.addMouseListener(paneMonitor);
         return pane;
     }
@@ -121,6 +281,7 @@ public class DragPipeline {
         pane.setRootWindow(win);
         pane.setCachedGlassPane(win.getGlassPane());
         win.setGlassPane(pane);
+        pane.buildDropTargetIndex();
         pane.setVisible(true);
     }
 
@@ -132,6 +293,7 @@ public class DragPipeline {
         }
 
         clearRubberBand();
+        discardPendingDragEvent();
         for(int i=0; i<windows.length; i++) {
             Component cmp = windows[i].getGlassPane();
             if(cmp instanceof DragGlasspane) {
@@ -140,12 +302,14 @@ public class DragPipeline {
                 cmp = pane.getCachedGlassPane();
 //                                pane.dispose();
                 windows[i].setGlassPane(cmp);
+                // hand the glasspane back to the pool in a clean state
+                pane.removeMouseListener(paneMonitor);
+                pane.reset();
                 windows[i] = null;
             }
         }
 
         windowBounds = null;
-        rootWindowsByBounds.clear();
         // turn the current drag operation off
         setCurrentDragOperation(null);
         open = false;
@@ -161,6 +325,11 @@ public class DragPipeline {
             return;
         }
 
+        if(coalescingEnabled) {
+            coalesceDragEvent(me);
+            return;
+        }
+
         final MouseEvent evt = me;
         EventQueue.invokeLater(new Runnable() {
             @Override
@@ -170,7 +339,87 @@ public class DragPipeline {
         });
     }
 
+    private void coalesceDragEvent(MouseEvent me) {
+        synchronized(pendingLock) {
+            if(pendingEvent!=null) {
+                incrementDropped();
+            }
+            // latest wins.  if a flush is already scheduled, it will pick up
+            // this event instead of the one it replaced.
+            pendingEvent = me;
+            if(flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+
+        long delay = lastFlush + frameBudget - System.currentTimeMillis();
+        if(delay<=0) {
+            EventQueue.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingDragEvent();
+                }
+            });
+        } else {
+            getFlushTimer().setInitialDelay((int)delay);
+            getFlushTimer().restart();
+        }
+    }
+
+    private synchronized Timer getFlushTimer() {
+        if(flushTimer==null) {
+            flushTimer = new Timer(frameBudget, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    flushPendingDragEvent();
+                }
+            });
+            flushTimer.setRepeats(false);
+        }
+        return flushTimer;
+    }
+
+    private void flushPendingDragEvent() {
+        MouseEvent evt = null;
+        synchronized(pendingLock) {
+            evt = pendingEvent;
+            pendingEvent = null;
+            flushScheduled = false;
+        }
+
+        lastFlush = System.currentTimeMillis();
+        if(evt!=null && open) {
+            processDragEventImpl(evt);
+        }
+    }
+
+    private void discardPendingDragEvent() {
+        synchronized(pendingLock) {
+            pendingEvent = null;
+            flushScheduled = false;
+        }
+        synchronized(this) {
+            if(flushTimer!=null) {
+                flushTimer.stop();
+            }
+        }
+    }
+
+    private static void incrementProcessed() {
+        synchronized(COUNTER_LOCK) {
+            processedEvents++;
+        }
+    }
+
+    private static void incrementDropped() {
+        synchronized(COUNTER_LOCK) {
+            droppedEvents++;
+        }
+    }
+
     private void processDragEventImpl(MouseEvent me) {
+        incrementProcessed();
         dragToken.updateMouse(me);
 
         if(heavyweightDockableSupportted) {
@@ -354,7 +603,7 @@ public class DragPipeline {
         Point screenLoc = dragToken.getCurrentMouse(true);
         for(int i=0; i<windowBounds.length; i++) {
             if(windowBounds[i].contains(screenLoc)) {
-                return (RootWindow)rootWindowsByBounds.get(windowBounds[i]);
+                return windows[i];
             }
         }
         return null;
@@ -0,0 +1,183 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking.drag;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.event.AWTEventListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.WeakHashMap;
+
+import org.flexdock.util.RootWindow;
+
+/**
+ * Keeps track of the windows that can take part in a drag operation, so that
+ * starting a drag doesn't have to walk every frame and owned window in the
+ * application.  Windows are picked up from window open/close events and
+ * visibility changes, and each window gets a {@code DragGlasspane} that is
+ * reused across drag operations.
+ * <p>
+ * Should the registry be unable to listen for window events, it falls back
+ * on {@link RootWindow#getVisibleWindows()} on every call.
+ */
+class DragWindowRegistry implements AWTEventListener {
+    private static final DragWindowRegistry SINGLETON = new DragWindowRegistry();
+
+    // both maps are keyed by Window and only accessed from the EDT
+    private final WeakHashMap windows = new WeakHashMap();
+    private final WeakHashMap glassPanes = new WeakHashMap();
+    private final ComponentAdapter visibilityMonitor = new ComponentAdapter() {
+        @Override
+        public void componentShown(ComponentEvent e) {
+            invalidate();
+        }
+
+        @Override
+        public void componentHidden(ComponentEvent e) {
+            invalidate();
+        }
+    };
+
+    private boolean installed;
+    private boolean unavailable;
+    private RootWindow[] visibleWindows;
+
+    static DragWindowRegistry getInstance() {
+        return SINGLETON;
+    }
+
+    /**
+     * Returns the visible root windows, i.e. visible Swing root containers
+     * whose owners are visible as well.  The returned array is a copy that
+     * the caller may modify.
+     */
+    RootWindow[] getVisibleWindows() {
+        if(!install()) {
+            return RootWindow.getVisibleWindows();
+        }
+
+        if(visibleWindows==null) {
+            visibleWindows = findVisibleWindows();
+        }
+        return visibleWindows.clone();
+    }
+
+    /**
+     * Returns the pooled {@code DragGlasspane} for the given window, creating
+     * one if necessary.  If the pooled glasspane is still installed in a root
+     * pane, a new, unpooled glasspane is returned instead.
+     */
+    DragGlasspane getGlassPane(RootWindow win) {
+        Component root = win.getRootContainer();
+        DragGlasspane pane = (DragGlasspane)glassPanes.get(root);
+        if(pane!=null && pane.getParent()!=null) {
+            return new DragGlasspane();
+        }
+
+        if(pane==null) {
+            pane = new DragGlasspane();
+            if(root!=null) {
+                glassPanes.put(root, pane);
+            }
+        }
+        return pane;
+    }
+
+    void invalidate() {
+        visibleWindows = null;
+    }
+
+    @Override
+    public void eventDispatched(AWTEvent event) {
+        int id = event.getID();
+        if(id!=WindowEvent.WINDOW_OPENED && id!=WindowEvent.WINDOW_CLOSED) {
+            return;
+        }
+
+        Window window = ((WindowEvent)event).getWindow();
+        if(id==WindowEvent.WINDOW_OPENED) {
+            register(window);
+        } else {
+            window.removeComponentListener(visibilityMonitor);
+            windows.remove(window);
+            glassPanes.remove(window);
+        }
+        invalidate();
+    }
+
+    private boolean install() {
+        if(installed) {
+            return true;
+        }
+        if(unavailable) {
+            return false;
+        }
+
+        try {
+            Toolkit.getDefaultToolkit().addAWTEventListener(this, AWTEvent.WINDOW_EVENT_MASK);
+        } catch(SecurityException e) {
+            unavailable = true;
+            return false;
+        }
+
+        // pick up the windows that were opened before we started listening
+        Window[] existing = Window.getWindows();
+        for(int i=0; i<existing.length; i++) {
+            register(existing[i]);
+        }
+        installed = true;
+        return true;
+    }
+
+    private void register(Window window) {
+        if(!windows.containsKey(window)) {
+            windows.put(window, Boolean.TRUE);
+            window.addComponentListener(visibilityMonitor);
+        }
+    }
+
+    private RootWindow[] findVisibleWindows() {
+        ArrayList list = new ArrayList(windows.size());
+        for(Iterator it=windows.keySet().iterator(); it.hasNext();) {
+            Window window = (Window)it.next();
+            if(window!=null && isShowing(window) && RootWindow.isValidRootContainer(window)) {
+                list.add(RootWindow.getRootContainer(window));
+            }
+        }
+        return (RootWindow[])list.toArray(new RootWindow[list.size()]);
+    }
+
+    private static boolean isShowing(Window window) {
+        // an owned window only counts if its whole owner chain is visible
+        for(Window w=window; w!=null; w=w.getOwner()) {
+            if(!w.isVisible()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking.drag;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+
+import javax.swing.JRootPane;
+import javax.swing.SwingUtilities;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingPort;
+import org.flexdock.util.DockingUtility;
+import org.flexdock.util.NestedComponents;
+
+/**
+ * A uniform grid of the {@code Dockable} and {@code DockingPort} bounds within
+ * a single content pane. It is built once at the start of a drag operation so
+ * that the per-event hit-test does not have to descend the entire component
+ * tree via {@code SwingUtilities.getDeepestComponentAt()} and then walk back
+ * up through every intermediate container.
+ * <p>
+ * {@code getDropTargets(Point)} yields the same result as
+ * {@code NestedComponents.find(SwingUtilities.getDeepestComponentAt(...), Dockable.class, DockingPort.class)}.
+ * If the layout has changed since the index was built, the index rebuilds
+ * itself on the next query. Nested {@code JRootPanes} are not indexed;
+ * queries over them fall back to the component tree walk.
+ */
+public class DropTargetIndex {
+    private static final int CELL_SIZE = 64;
+
+    private Container root;
+    private ArrayList[] cells;
+    private int columns;
+    private int rows;
+    private int rootWidth;
+    private int rootHeight;
+    private boolean valid;
+
+    public DropTargetIndex(Container root) {
+        if(root==null) {
+            throw new NullPointerException("'root' parameter cannot be null.");
+        }
+        this.root = root;
+    }
+
+    public Container getRoot() {
+        return root;
+    }
+
+    /**
+     * Marks this index as stale. It will be rebuilt on the next query.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    public boolean isValid() {
+        return valid && root.getWidth()==rootWidth && root.getHeight()==rootHeight;
+    }
+
+    /**
+     * Discards any previously indexed bounds and re-indexes the visible
+     * {@code Dockables} and {@code DockingPorts} within the root container.
+     */
+    public void rebuild() {
+        rootWidth = root.getWidth();
+        rootHeight = root.getHeight();
+        columns = Math.max(1, (rootWidth + CELL_SIZE - 1) / CELL_SIZE);
+        rows = Math.max(1, (rootHeight + CELL_SIZE - 1) / CELL_SIZE);
+        cells = new ArrayList[columns * rows];
+
+        int count = root.getComponentCount();
+        for(int i=0; i<count; i++) {
+            Component c = root.getComponent(i);
+            if(c.isVisible()) {
+                index(c, c.getX(), c.getY(), 0);
+            }
+        }
+        valid = true;
+    }
+
+    private void index(Component c, int x, int y, int depth) {
+        int w = c.getWidth();
+        int h = c.getHeight();
+        if(w<=0 || h<=0) {
+            return;
+        }
+
+        if(c instanceof JRootPane) {
+            add(new Entry(c, new Rectangle(x, y, w, h), depth, true));
+            return;
+        }
+
+        if(c instanceof DockingPort || DockingUtility.isDockable(c)) {
+            add(new Entry(c, new Rectangle(x, y, w, h), depth, false));
+        }
+
+        if(c instanceof Container) {
+            Container parent = (Container)c;
+            int count = parent.getComponentCount();
+            for(int i=0; i<count; i++) {
+                Component child = parent.getComponent(i);
+                if(child.isVisible()) {
+                    index(child, x + child.getX(), y + child.getY(), depth+1);
+                }
+            }
+        }
+    }
+
+    private void add(Entry entry) {
+        Rectangle r = entry.bounds;
+        int col0 = clamp(r.x / CELL_SIZE, columns);
+        int col1 = clamp((r.x + r.width - 1) / CELL_SIZE, columns);
+        int row0 = clamp(r.y / CELL_SIZE, rows);
+        int row1 = clamp((r.y + r.height - 1) / CELL_SIZE, rows);
+        for(int row=row0; row<=row1; row++) {
+            for(int col=col0; col<=col1; col++) {
+                int i = row*columns + col;
+                if(cells[i]==null) {
+                    cells[i] = new ArrayList(4);
+                }
+                cells[i].add(entry);
+            }
+        }
+    }
+
+    private static int clamp(int val, int max) {
+        return val<0? 0: val>=max? max-1: val;
+    }
+
+    /**
+     * Returns the {@code Dockable} and {@code DockingPort} nested beneath the
+     * specified point, relative to the root container.
+     *
+     * @param p the point to test, in the root container's coordinate space
+     * @return the nested drop targets at the specified point, or {@code null}
+     *         if the point is not over any component.
+     */
+    public NestedComponents getDropTargets(Point p) {
+        if(p==null) {
+            return null;
+        }
+
+        if(!isValid()) {
+            rebuild();
+        }
+
+        Entry hit = getDeepestEntry(p.x, p.y);
+        if(hit!=null && !hit.isCurrent(root)) {
+            rebuild();
+            hit = getDeepestEntry(p.x, p.y);
+        }
+
+        if(hit==null || hit.barrier) {
+            return findDropTargets(root, p);
+        }
+        // 'hit' is the first Dockable or DockingPort the tree walk would have
+        // encountered, so we only need to resolve the ancestors from here.
+        return NestedComponents.find(hit.component, Dockable.class, DockingPort.class);
+    }
+
+    private Entry getDeepestEntry(int x, int y) {
+        if(x<0 || y<0 || x>=rootWidth || y>=rootHeight) {
+            return null;
+        }
+
+        ArrayList cell = cells[(y / CELL_SIZE)*columns + x / CELL_SIZE];
+        if(cell==null) {
+            return null;
+        }
+
+        Entry deepest = null;
+        int size = cell.size();
+        for(int i=0; i<size; i++) {
+            Entry e = (Entry)cell.get(i);
+            if((deepest==null || e.depth>deepest.depth) && e.bounds.contains(x, y)) {
+                deepest = e;
+            }
+        }
+        return deepest;
+    }
+
+    /**
+     * Resolves the drop targets at the specified point by walking the
+     * component tree. This is the behavior indexed by this class.
+     *
+     * @param root the container to search
+     * @param p the point to test, in the root container's coordinate space
+     * @return the nested drop targets at the specified point.
+     */
+    public static NestedComponents findDropTargets(Container root, Point p) {
+        Component deep = SwingUtilities.getDeepestComponentAt(root, p.x, p.y);
+        return NestedComponents.find(deep, Dockable.class, DockingPort.class);
+    }
+
+    private static class Entry {
+        private Component component;
+        private Rectangle bounds;
+        private int depth;
+        private boolean barrier;
+
+        private Entry(Component component, Rectangle bounds, int depth, boolean barrier) {
+            this.component = component;
+            this.bounds = bounds;
+            this.depth = depth;
+            this.barrier = barrier;
+        }
+
+        private boolean isCurrent(Container root) {
+            if(!component.isShowing() || component.getWidth()!=bounds.width || component.getHeight()!=bounds.height) {
+                return false;
+            }
+            Point p = SwingUtilities.convertPoint(component, 0, 0, root);
+            return p.x==bounds.x && p.y==bounds.y;
+        }
+    }
+}
@@ -39,6 +39,7 @@ import org.flexdock.util.SwingUtility;
 public abstract class DefaultPreview implements DragPreview {
     public static final int DEFAULT_TAB_WIDTH = 50;
     public static final int DEFAULT_TAB_HEIGHT = 20;
+    private static final RegionChecker DEFAULT_REGION_CHECKER = new DefaultRegionChecker();
 
     @Override
     public Polygon createPreviewPolygon(Component dockable, DockingPort port, Dockable hover, String targetRegion, Component paintingTarget, Map dragInfo) {
@@ -73,7 +74,7 @@ public abstract class DefaultPreview implements DragPreview {
     protected Polygon createPolyRect(DockingPort port, Component dockable, String region) {
         RegionChecker regionChecker = port.getDockingProperties().getRegionChecker();
         if(regionChecker==null) {
-            regionChecker = new DefaultRegionChecker();
+            regionChecker = DEFAULT_REGION_CHECKER;
         }
 
         Rectangle r = regionChecker.getSiblingBounds(dockable, region);
@@ -109,6 +109,18 @@ public class DockingEvent extends Event {
         this.consumed = true;
     }
 
+    /**
+     * Returns {@code true} for {@code DRAG_STARTED} and {@code DROP_STARTED}
+     * events, which listeners may veto via {@code consume()}.
+     *
+     * @return {@code true} if this event must be delivered synchronously.
+     */
+    @Override
+    public boolean isSynchronous() {
+        int type = getEventType();
+        return type==DRAG_STARTED || type==DROP_STARTED;
+    }
+
     public AWTEvent getTrigger() {
         return trigger;
     }
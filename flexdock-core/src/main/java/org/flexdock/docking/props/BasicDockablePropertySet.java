@@ -292,4 +292,24 @@ public class BasicDockablePropertySet extends TypedHashtable implements Dockable
             changeSupport.firePropertyChange(property, oldValue, newValue);
         }
     }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        Object ret = super.put(key, value);
+        PropertyManager.scopeChanged();
+        return ret;
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        Object ret = super.remove(key);
+        PropertyManager.scopeChanged();
+        return ret;
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        PropertyManager.scopeChanged();
+    }
 }
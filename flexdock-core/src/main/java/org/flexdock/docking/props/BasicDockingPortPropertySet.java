@@ -113,4 +113,24 @@ public class BasicDockingPortPropertySet extends TypedHashtable implements Docki
             put(key, new Float(inset));
         }
     }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        Object ret = super.put(key, value);
+        PropertyManager.scopeChanged();
+        return ret;
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        Object ret = super.remove(key);
+        PropertyManager.scopeChanged();
+        return ret;
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        PropertyManager.scopeChanged();
+    }
 }
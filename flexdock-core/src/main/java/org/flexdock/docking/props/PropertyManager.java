@@ -46,6 +46,9 @@ public class PropertyManager {
     public static final String DOCKINGPORT_PROPERTIES_KEY = DockingPortPropertySet.class.getName();
     private static final ClassMapping DOCKABLE_PROPS_MAPPING = new ClassMapping(ScopedDockablePropertySet.class, null);
     private static final HashMap DOCKABLE_CLIENT_PROPERTIES = new HashMap();
+    private static final Object SCOPE_VERSION_LOCK = new Object();
+    private static volatile long scopeVersion;
+    private static volatile boolean resolvedValueCaching = true;
 
     public static DockingPortPropertySet getDockingPortRoot() {
         return ScopedDockingPortPropertySet.ROOT_PROPS;
@@ -111,11 +114,43 @@ public class PropertyManager {
         return (DockingPortPropertySet)obj;
     }
 
+    /**
+     * Returns the value for the specified key, searching the global, local,
+     * default and root scopes of the {@code ScopedMap} in that order. For the
+     * framework's scoped property sets, resolved values are cached until any
+     * of their scope maps change.
+     *
+     * @param key the property key
+     * @param map the scoped map to search
+     * @return the resolved property value, or {@code null} if none was found
+     */
     public static Object getProperty(Object key, ScopedMap map) {
         if(key==null || map==null) {
             return null;
         }
 
+        ResolvedPropertyCache cache = resolvedValueCaching? getResolvedPropertyCache(map): null;
+        if(cache!=null && isVersioned(map)) {
+            return cache.get(key, map);
+        }
+        return resolveProperty(key, map);
+    }
+
+    public static boolean isResolvedValueCaching() {
+        return resolvedValueCaching;
+    }
+
+    /**
+     * Sets whether {@code getProperty()} caches the values it resolves for the
+     * framework's scoped property sets. Caching is on by default; with it off,
+     * every lookup searches the scope maps again.
+     */
+    public static void setResolvedValueCaching(boolean caching) {
+        resolvedValueCaching = caching;
+        scopeChanged();
+    }
+
+    static Object resolveProperty(Object key, ScopedMap map) {
         // first, check the global property list
         Object value = getProperty(key, map.getGlobals());
         // if not in the global list, check the locals
@@ -203,6 +238,49 @@ public class PropertyManager {
         }
     }
 
+    private static ResolvedPropertyCache getResolvedPropertyCache(ScopedMap map) {
+        if(map instanceof ScopedDockablePropertySet) {
+            return ((ScopedDockablePropertySet)map).getResolvedPropertyCache();
+        }
+        if(map instanceof ScopedDockingPortPropertySet) {
+            return ((ScopedDockingPortPropertySet)map).getResolvedPropertyCache();
+        }
+        return null;
+    }
+
+    private static boolean isVersioned(ScopedMap map) {
+        return isVersioned(map.getGlobals()) && isVersioned(map.getLocals())
+               && isVersioned(map.getDefaults()) && isVersioned(map.getRoot());
+    }
+
+    /**
+     * Returns {@code true} if changes to the specified scope map or scope list
+     * are reported via {@code scopeChanged()}.
+     */
+    static boolean isVersioned(Object scope) {
+        if(scope==null) {
+            return true;
+        }
+        if(scope instanceof ScopeList) {
+            return ((ScopeList)scope).isVersioned();
+        }
+        return scope instanceof BasicDockablePropertySet || scope instanceof BasicDockingPortPropertySet;
+    }
+
+    static long getScopeVersion() {
+        return scopeVersion;
+    }
+
+    /**
+     * Invalidates all cached property values. Called whenever a property set or
+     * scope list changes.
+     */
+    static void scopeChanged() {
+        synchronized(SCOPE_VERSION_LOCK) {
+            scopeVersion++;
+        }
+    }
+
     private static Object getProperty(Object key, Object map) {
         if(map instanceof Map) {
             return ((Map)map).get(key);
@@ -0,0 +1,73 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking.props;
+
+import java.util.HashMap;
+
+/**
+ * Caches the values resolved by {@code PropertyManager.getProperty()} for a
+ * single {@code ScopedMap}. The cache is discarded whenever the
+ * {@code PropertyManager} scope version changes, so repeated reads of unchanged
+ * properties don't walk the scope chain.
+ */
+class ResolvedPropertyCache {
+    private static final Object NULL_VALUE = new Object();
+
+    // replaced wholesale on every change and never modified once published,
+    // so reads don't need to lock.
+    private volatile Snapshot snapshot = new Snapshot(-1, new HashMap());
+
+    Object get(Object key, ScopedMap map) {
+        long current = PropertyManager.getScopeVersion();
+        Snapshot snap = snapshot;
+        if(snap.version==current) {
+            Object value = snap.values.get(key);
+            if(value!=null) {
+                return value==NULL_VALUE? null: value;
+            }
+        }
+
+        Object value = PropertyManager.resolveProperty(key, map);
+        cache(key, value, current);
+        return value;
+    }
+
+    private synchronized void cache(Object key, Object value, long version) {
+        // don't cache values resolved while the scopes were changing
+        if(PropertyManager.getScopeVersion()!=version) {
+            return;
+        }
+
+        Snapshot snap = snapshot;
+        HashMap values = snap.version==version? new HashMap(snap.values): new HashMap();
+        values.put(key, value==null? NULL_VALUE: value);
+        snapshot = new Snapshot(version, values);
+    }
+
+    private static class Snapshot {
+        private final long version;
+        private final HashMap values;
+
+        private Snapshot(long version, HashMap values) {
+            this.version = version;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking.props;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * An {@code ArrayList} of scope maps for a {@code ScopedMap}. Every
+ * modification bumps the {@code PropertyManager} scope version so that cached
+ * property values are re-resolved.
+ */
+@SuppressWarnings(value = { "serial", "rawtypes", "unchecked" })
+class ScopeList extends ArrayList {
+    private boolean versioned = true;
+
+    ScopeList(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * Returns {@code true} if every map in this list reports its own changes
+     * to the {@code PropertyManager}.
+     */
+    boolean isVersioned() {
+        return versioned;
+    }
+
+    private void modified() {
+        boolean all = true;
+        for(int i=0; i<size(); i++) {
+            if(!PropertyManager.isVersioned(get(i))) {
+                all = false;
+                break;
+            }
+        }
+        versioned = all;
+        PropertyManager.scopeChanged();
+    }
+
+    @Override
+    public boolean add(Object o) {
+        boolean ret = super.add(o);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        super.add(index, element);
+        modified();
+    }
+
+    @Override
+    public boolean addAll(Collection c) {
+        boolean ret = super.addAll(c);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection c) {
+        boolean ret = super.addAll(index, c);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        Object ret = super.set(index, element);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object ret = super.remove(index);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        boolean ret = super.remove(o);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public boolean removeAll(Collection c) {
+        boolean ret = super.removeAll(c);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public boolean retainAll(Collection c) {
+        boolean ret = super.retainAll(c);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public boolean removeIf(Predicate filter) {
+        boolean ret = super.removeIf(filter);
+        modified();
+        return ret;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator operator) {
+        super.replaceAll(operator);
+        modified();
+    }
+
+    @Override
+    public void sort(Comparator c) {
+        super.sort(c);
+        modified();
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        super.removeRange(fromIndex, toIndex);
+        modified();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        modified();
+    }
+}
@@ -33,9 +33,10 @@ import org.flexdock.docking.Dockable;
 public class ScopedDockablePropertySet extends BasicDockablePropertySet implements ScopedMap {
 
     public static final RootDockablePropertySet ROOT_PROPS = new RootDockablePropertySet(null);
-    public static final List DEFAULTS = new ArrayList(0);
-    public static final List GLOBALS = new ArrayList(0);
+    public static final List DEFAULTS = new ScopeList(0);
+    public static final List GLOBALS = new ScopeList(0);
     private ArrayList locals;
+    private transient ResolvedPropertyCache resolvedCache;
 
     public ScopedDockablePropertySet(Dockable dockable) {
         this(6, dockable);
@@ -57,6 +58,13 @@ public class ScopedDockablePropertySet extends BasicDockablePropertySet implemen
         init();
     }
 
+    ResolvedPropertyCache getResolvedPropertyCache() {
+        if(resolvedCache==null) {
+            resolvedCache = new ResolvedPropertyCache();
+        }
+        return resolvedCache;
+    }
+
     @Override
     public List getLocals() {
         return locals;
@@ -126,7 +134,7 @@ public class ScopedDockablePropertySet extends BasicDockablePropertySet implemen
     }
 
     private void init() {
-        locals = new ArrayList(1);
+        locals = new ScopeList(1);
         locals.add(this);
     }
 
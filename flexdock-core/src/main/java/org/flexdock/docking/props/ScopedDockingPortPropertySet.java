@@ -30,10 +30,11 @@ import org.flexdock.docking.RegionChecker;
  */
 public class ScopedDockingPortPropertySet extends BasicDockingPortPropertySet implements ScopedMap {
     public static final RootDockingPortPropertySet ROOT_PROPS = new RootDockingPortPropertySet();
-    public static final List DEFAULTS = new ArrayList(0);
-    public static final List GLOBALS = new ArrayList(0);
+    public static final List DEFAULTS = new ScopeList(0);
+    public static final List GLOBALS = new ScopeList(0);
 
     private ArrayList locals;
+    private transient ResolvedPropertyCache resolvedCache;
 
     public ScopedDockingPortPropertySet() {
         super();
@@ -56,10 +57,17 @@ public class ScopedDockingPortPropertySet extends BasicDockingPortPropertySet im
     }
 
     protected void init() {
-        locals = new ArrayList(1);
+        locals = new ScopeList(1);
         locals.add(this);
     }
 
+    ResolvedPropertyCache getResolvedPropertyCache() {
+        if(resolvedCache==null) {
+            resolvedCache = new ResolvedPropertyCache();
+        }
+        return resolvedCache;
+    }
+
     @Override
     public List getLocals() {
         return locals;
@@ -81,6 +81,85 @@ public class DockingPath implements Cloneable, DockingConstants, Serializable {
         return path;
     }
 
+    /**
+     * Creates {@code DockingPaths} for several {@code Dockables} at once. The
+     * result is the same as calling {@code create(Dockable)} for each of them,
+     * but every {@code SplitNode} along the shared ancestry is computed only
+     * once, in a single walk down from each root {@code DockingPort} that
+     * visits nothing but the ancestors of the requested {@code Dockables}.
+     *
+     * @param dockables
+     *            the {@code Dockables} to create paths for
+     * @return a {@code Map} of {@code Dockable} to {@code DockingPath}. Entries
+     *         are absent for {@code Dockables} that are not docked.
+     */
+    public static Map create(Dockable[] dockables) {
+        IdentityHashMap paths = new IdentityHashMap();
+        if(dockables==null) {
+            return paths;
+        }
+
+        // mark every container between the requested dockables and their
+        // docking roots, so the walk down only enters those.
+        IdentityHashMap wanted = new IdentityHashMap();
+        IdentityHashMap ancestors = new IdentityHashMap();
+        IdentityHashMap roots = new IdentityHashMap();
+        for(int i=0; i<dockables.length; i++) {
+            Dockable dockable = dockables[i];
+            if(dockable==null || !isDocked(dockable)) {
+                continue;
+            }
+
+            Component comp = dockable.getComponent();
+            Container parent = comp.getParent();
+            while(parent!=null && !isDockingRoot(parent) && ancestors.put(parent, parent)==null) {
+                parent = parent.getParent();
+            }
+            if(parent==null) {
+                // not below a docking root.  leave it to create(Dockable).
+                paths.put(dockable, create(dockable));
+                continue;
+            }
+            if(isDockingRoot(parent)) {
+                roots.put(parent, parent);
+            }
+            wanted.put(comp, dockable);
+        }
+
+        for(Iterator it=roots.keySet().iterator(); it.hasNext();) {
+            DockingPort root = (DockingPort)it.next();
+            collectPaths((Container)root, new ArrayList(), root.getPersistentId(), ancestors, wanted, paths);
+        }
+        return paths;
+    }
+
+    private static void collectPaths(Container parent, ArrayList nodes, String rootPortId, Map ancestors, Map wanted, Map paths) {
+        Component[] children = parent.getComponents();
+        for(int i=0; i<children.length; i++) {
+            Component child = children[i];
+            Dockable dockable = (Dockable)wanted.get(child);
+            if(dockable!=null) {
+                DockingPath path = new DockingPath(dockable);
+                for(int j=0; j<nodes.size(); j++) {
+                    SplitNode node = (SplitNode)nodes.get(j);
+                    path.addNode(node==null? null: (SplitNode)node.clone());
+                }
+                path.setRootPortId(rootPortId);
+                paths.put(dockable, path);
+            }
+
+            if(ancestors.containsKey(child)) {
+                ArrayList childNodes = nodes;
+                if(child instanceof DockingPort) {
+                    childNodes = new ArrayList(nodes.size()+1);
+                    childNodes.addAll(nodes);
+                    childNodes.add(createNode((DockingPort)child));
+                }
+                collectPaths((Container)child, childNodes, rootPortId, ancestors, wanted, paths);
+            }
+        }
+    }
+
     public static SplitNode createNode(Dockable dockable) {
         if(dockable==null) {
             return null;
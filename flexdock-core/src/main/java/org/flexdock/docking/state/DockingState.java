@@ -52,6 +52,8 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
 
     private int centerY = DockingConstants.UNINITIALIZED;
 
+    private transient int modCount;
+
     public DockingState(String dockableId) {
         this.dockableId = dockableId;
     }
@@ -69,6 +71,7 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
     }
 
     public void setSplitRatio(float ratio) {
+        modCount++;
         this.splitRatio = ratio;
     }
 
@@ -77,6 +80,7 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
     }
 
     public void setRegion(String region) {
+        modCount++;
         this.region = region;
     }
 
@@ -105,10 +109,12 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
     }
 
     public void setPath(DockingPath path) {
+        modCount++;
         this.dockingPath = path;
     }
 
     public void setMinimizedConstraint(int constraint) {
+        modCount++;
         this.minimizedConstraint = constraint;
         if(constraint!=MinimizationManager.UNSPECIFIED_LAYOUT_CONSTRAINT) {
             this.floatingGroup = null;
@@ -116,6 +122,7 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
     }
 
     public void setFloatingGroup(String group) {
+        modCount++;
         this.floatingGroup = group;
         if(group!=null) {
             this.minimizedConstraint = MinimizationManager.UNSPECIFIED_LAYOUT_CONSTRAINT;
@@ -136,6 +143,7 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
     }
 
     public void setRelativeParentId(String relativeParentId) {
+        modCount++;
         this.relativeParentId = relativeParentId;
     }
 
@@ -152,16 +160,19 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
         return centerX;
     }
     public void setCenterX(int centerX) {
+        modCount++;
         this.centerX = centerX;
     }
     public int getCenterY() {
         return centerY;
     }
     public void setCenterY(int centerY) {
+        modCount++;
         this.centerY = centerY;
     }
 
     public void setCenter(Point p) {
+        modCount++;
         centerX = p==null? 0: p.x;
         centerY = p==null? 0: p.y;
     }
@@ -177,6 +188,20 @@ public class DockingState implements Cloneable, Serializable, DockingConstants {
         return (centerX != DockingConstants.UNINITIALIZED && centerY != DockingConstants.UNINITIALIZED);
     }
 
+    /**
+     * Returns a counter that is incremented whenever this state is modified
+     * through one of its setters.  Snapshots use it to tell whether a
+     * previously copied state is still current.  Note that changes made
+     * directly to the nodes of a {@link DockingPath} that is already set on
+     * this state are not tracked; install a new path with
+     * {@link #setPath(DockingPath)} instead.
+     *
+     * @return the modification count of this state.
+     */
+    public int getModificationCount() {
+        return modCount;
+    }
+
     @Override
     public Object clone() {
         DockingState dockingStateClone = new DockingState(this.dockableId);
@@ -39,6 +39,16 @@ public interface LayoutManager {
 
     boolean display(Dockable dockable);
 
+    /**
+     * Records where the specified {@code Dockable} currently sits in its
+     * layout. The framework calls this just before the {@code Dockable} is
+     * undocked, so that it can later be restored to the same position no
+     * matter when the {@code UNDOCKING_STARTED} event reaches its listeners.
+     *
+     * @param dockable the {@code Dockable} about to be undocked
+     */
+    void captureDockingState(Dockable dockable);
+
     boolean store() throws IOException, PersistenceException;
 
     boolean store(String persistenceKey) throws IOException, PersistenceException;
@@ -0,0 +1,318 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.event;
+
+import java.awt.EventQueue;
+import java.util.LinkedList;
+
+/**
+ * Defers the delivery of {@code Events} to the AWT event dispatch thread on
+ * behalf of the {@code EventManager}. Events are queued in dispatch order and
+ * always delivered on the event dispatch thread, so listeners may touch Swing
+ * components and every listener observes events in the same order in which
+ * they were dispatched. A single {@code invokeLater()} drains everything that
+ * has queued up in the meantime and delivers it as one batch. Bursts, such as
+ * the {@code DockingEvents} fired while a {@code Layout} is applied, are
+ * therefore handled in one pass once the code that fired them has returned.
+ * <p>
+ * The queue is bounded. When it is full, other threads block until the event
+ * dispatch thread has made room, while the event dispatch thread itself
+ * delivers the pending events right away instead of waiting. The number of
+ * dispatches that found the queue full and the total time spent making room
+ * are tracked so that backpressure can be monitored.
+ *
+ * @see EventManager#setAsynchronous(boolean)
+ */
+public class AsyncEventDispatcher {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Object lock = new Object();
+    private final LinkedList queue = new LinkedList();
+    private final int capacity;
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+    private boolean running;
+    private boolean drainScheduled;
+    private int draining;
+
+    private long queuedCount;
+    private long deliveredCount;
+    private long batchCount;
+    private int largestBatch;
+    private int peakQueueSize;
+    private long blockedCount;
+    private long blockedNanos;
+
+    public AsyncEventDispatcher() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public AsyncEventDispatcher(int capacity) {
+        if(capacity<1) {
+            throw new IllegalArgumentException("'capacity' must be greater than zero.");
+        }
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void start() {
+        synchronized(lock) {
+            running = true;
+        }
+    }
+
+    /**
+     * Delivers all pending events and stops queueing new ones.
+     */
+    public void stop() {
+        flush();
+        synchronized(lock) {
+            running = false;
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isRunning() {
+        synchronized(lock) {
+            return running;
+        }
+    }
+
+    /**
+     * Indicates whether the current thread is the one events are delivered
+     * on, which is always the AWT event dispatch thread.
+     *
+     * @return {@code true} if called from the event dispatch thread
+     */
+    public boolean isDispatchThread() {
+        return EventQueue.isDispatchThread();
+    }
+
+    void enqueue(EventHandler handler, Event evt, Object target, Object[] targets) {
+        Entry entry = new Entry(handler, evt, target, targets);
+        boolean edt = isDispatchThread();
+        if(edt && isFull()) {
+            // the event dispatch thread must never wait on itself to make room
+            long start = System.nanoTime();
+            drain();
+            synchronized(lock) {
+                blockedCount++;
+                blockedNanos += System.nanoTime() - start;
+            }
+        }
+
+        boolean queued = false;
+        boolean schedule = false;
+        synchronized(lock) {
+            if(!edt && running && queue.size()>=capacity) {
+                long start = System.nanoTime();
+                blockedCount++;
+                while(running && queue.size()>=capacity) {
+                    waitOnLock();
+                }
+                blockedNanos += System.nanoTime() - start;
+            }
+
+            if(running) {
+                queue.addLast(entry);
+                queuedCount++;
+                peakQueueSize = Math.max(peakQueueSize, queue.size());
+                queued = true;
+                schedule = !drainScheduled;
+                drainScheduled = true;
+            }
+        }
+
+        if(schedule) {
+            EventQueue.invokeLater(drainTask);
+        }
+        // if we were stopped in the meantime, deliver on the calling thread
+        if(!queued) {
+            entry.deliver();
+        }
+    }
+
+    private boolean isFull() {
+        synchronized(lock) {
+            return running && queue.size()>=capacity;
+        }
+    }
+
+    /**
+     * Delivers every event queued prior to this call. On the event dispatch
+     * thread the pending events are delivered right away; any other thread
+     * blocks until the event dispatch thread has delivered them.
+     */
+    public void flush() {
+        if(isDispatchThread()) {
+            drain();
+            return;
+        }
+
+        synchronized(lock) {
+            while(running && (!queue.isEmpty() || draining>0)) {
+                waitOnLock();
+            }
+        }
+    }
+
+    /**
+     * Delivers queued events, oldest first, until the queue is empty. Events
+     * are taken from the queue one at a time, so a listener that flushes the
+     * queue from within a batch continues that batch in order rather than
+     * overtaking it.
+     */
+    private void drain() {
+        int delivered = 0;
+        synchronized(lock) {
+            drainScheduled = false;
+            draining++;
+        }
+
+        try {
+            while(true) {
+                Entry entry;
+                synchronized(lock) {
+                    if(queue.isEmpty()) {
+                        break;
+                    }
+                    entry = (Entry)queue.removeFirst();
+                    // wake up anybody waiting for room in the queue
+                    lock.notifyAll();
+                }
+
+                try {
+                    entry.deliver();
+                } catch(Throwable t) {
+                    System.err.println("Exception: " + t.getMessage());
+                    t.printStackTrace();
+                }
+                delivered++;
+            }
+        } finally {
+            synchronized(lock) {
+                draining--;
+                deliveredCount += delivered;
+                if(delivered>0) {
+                    batchCount++;
+                    largestBatch = Math.max(largestBatch, delivered);
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void waitOnLock() {
+        try {
+            lock.wait();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueSize() {
+        synchronized(lock) {
+            return queue.size();
+        }
+    }
+
+    public long getQueuedEventCount() {
+        synchronized(lock) {
+            return queuedCount;
+        }
+    }
+
+    public long getDeliveredEventCount() {
+        synchronized(lock) {
+            return deliveredCount;
+        }
+    }
+
+    public long getBatchCount() {
+        synchronized(lock) {
+            return batchCount;
+        }
+    }
+
+    public int getLargestBatch() {
+        synchronized(lock) {
+            return largestBatch;
+        }
+    }
+
+    public int getPeakQueueSize() {
+        synchronized(lock) {
+            return peakQueueSize;
+        }
+    }
+
+    /**
+     * Returns the number of dispatches that found the queue full.
+     *
+     * @return the number of blocked dispatches
+     */
+    public long getBlockedDispatchCount() {
+        synchronized(lock) {
+            return blockedCount;
+        }
+    }
+
+    /**
+     * Returns the total time, in milliseconds, that dispatching threads have
+     * spent waiting for, or on the event dispatch thread making, room in the
+     * queue.
+     *
+     * @return the total blocked time in milliseconds
+     */
+    public long getBlockedDispatchTime() {
+        synchronized(lock) {
+            return blockedNanos / 1000000L;
+        }
+    }
+
+    private static class Entry {
+        private EventHandler handler;
+        private Event event;
+        private Object target;
+        private Object[] targets;
+
+        private Entry(EventHandler handler, Event event, Object target, Object[] targets) {
+            this.handler = handler;
+            this.event = event;
+            this.target = target;
+            this.targets = targets;
+        }
+
+        private void deliver() {
+            if(targets!=null) {
+                handler.handleEvent(event, targets);
+            } else {
+                handler.handleEvent(event, target);
+            }
+        }
+    }
+}
@@ -46,4 +46,18 @@ public class Event extends EventObject implements DockingConstants {
     public int getEventType() {
         return eventType;
     }
+
+    /**
+     * Indicates whether this event must be delivered to all of its listeners
+     * before {@code EventManager.dispatch()} returns, even when asynchronous
+     * dispatch is enabled. Events that listeners may veto, and that the
+     * dispatching code inspects afterward, must return {@code true}. The
+     * default implementation returns {@code false}.
+     *
+     * @return {@code true} if this event must be delivered synchronously.
+     * @see EventManager#setAsynchronous(boolean)
+     */
+    public boolean isSynchronous() {
+        return false;
+    }
 }
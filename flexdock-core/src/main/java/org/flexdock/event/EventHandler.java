@@ -21,7 +21,6 @@ package org.flexdock.event;
 
 import java.util.ArrayList;
 import java.util.EventListener;
-import java.util.Iterator;
 
 /**
  * @author Christopher Butler
@@ -31,6 +30,8 @@ public abstract class EventHandler {
 
     /**
      * Tests a given event to determine if this handler can handle that event.
+     * The {@code EventManager} caches the result for each event class, so
+     * the answer should depend only upon the class of {@code evt}.
      *
      * @param evt
      *            the event to test.
@@ -79,10 +80,7 @@ public abstract class EventHandler {
         int evtType = evt.getEventType();
 
         // allow all globally registered listeners to handle the event first
-        for (Iterator it = globalListeners.iterator(); it.hasNext();) {
-            EventListener listener = (EventListener) it.next();
-            handleEvent(evt, listener, evtType);
-        }
+        handleGlobalEvent(evt, evtType);
 
         // if there were no specified targets for the event, then we can quit
         // now
@@ -93,19 +91,50 @@ public abstract class EventHandler {
         // for each of the targets, get their local event listeners
         // and dispatch the event to them
         for (int i = 0; i < targets.length; i++) {
-            // get the local event listeners
-            EventListener[] targetListeners = targets[i] == null ? null
-                                              : getListeners(targets[i]);
-            if (targetListeners == null) {
-                continue;
-            }
+            handleTargetEvent(evt, targets[i], evtType);
+        }
+    }
+
+    /**
+     * Equivalent to {@code handleEvent(evt, new Object[] {target})}, without
+     * allocating the targets array. If {@code target} is {@code null}, only
+     * the globally registered listeners receive the event.
+     *
+     * @param evt
+     *            the event to process.
+     * @param target
+     *            the local listener target to pass the event to.
+     */
+    public void handleEvent(Event evt, Object target) {
+        if (evt == null) {
+            return;
+        }
+
+        int evtType = evt.getEventType();
+        handleGlobalEvent(evt, evtType);
+        handleTargetEvent(evt, target, evtType);
+    }
+
+    private void handleGlobalEvent(Event evt, int evtType) {
+        for (int i = 0; i < globalListeners.size(); i++) {
+            EventListener listener = (EventListener) globalListeners.get(i);
+            handleEvent(evt, listener, evtType);
+        }
+    }
+
+    private void handleTargetEvent(Event evt, Object target, int evtType) {
+        // get the local event listeners
+        EventListener[] targetListeners = target == null ? null
+                                          : getListeners(target);
+        if (targetListeners == null) {
+            return;
+        }
 
-            // for each local event listener, dispatch the event
-            for (int j = 0; j < targetListeners.length; j++) {
-                EventListener listener = targetListeners[j];
-                if (listener != null && acceptsListener(listener)) {
-                    handleEvent(evt, listener, evtType);
-                }
+        // for each local event listener, dispatch the event
+        for (int j = 0; j < targetListeners.length; j++) {
+            EventListener listener = targetListeners[j];
+            if (listener != null && acceptsListener(listener)) {
+                handleEvent(evt, listener, evtType);
             }
         }
     }
@@ -21,16 +21,40 @@ package org.flexdock.event;
 
 import java.util.Collection;
 import java.util.EventListener;
-import java.util.Iterator;
-import java.util.Stack;
+import java.util.HashMap;
 
 
 /**
+ * Dispatches {@code Events} to the first registered {@code EventHandler} that
+ * accepts them. The handler chosen for a given event class is cached until a
+ * handler is added or removed, so {@code EventHandler.acceptsEvent(Event)}
+ * implementations must base their answer solely upon the event's class.
+ * <p>
+ * By default, events are delivered on the dispatching thread. If asynchronous
+ * dispatch is enabled, events are instead queued and delivered in order on the
+ * AWT event dispatch thread by an {@code AsyncEventDispatcher}. Events reporting {@code true} for
+ * {@code Event.isSynchronous()} are always delivered before {@code dispatch}
+ * returns, after any previously queued events, so that callers may inspect
+ * them afterward for a veto.
+ *
  * @author Christopher Butler
  */
 public class EventManager {
+    /**
+     * System property key used during framework initialization to determine
+     * whether events are dispatched asynchronously.
+     */
+    public static final String ASYNC_DISPATCH = "event.dispatch.async";
+
+    private static final EventHandler[] EMPTY_HANDLERS = new EventHandler[0];
+    private static final Object NO_HANDLER = new Object();
     private static final EventManager SINGLETON = new EventManager();
-    private Stack handlers = new Stack();
+
+    // copy-on-write.  readers take a snapshot of the array reference and never lock.
+    private volatile EventHandler[] handlers = EMPTY_HANDLERS;
+    // event class -> EventHandler (or NO_HANDLER).  also copy-on-write.
+    private volatile HashMap handlersByEventClass = new HashMap();
+    private volatile AsyncEventDispatcher asyncDispatcher;
 
     static {
         addHandler(new RegistrationHandler());
@@ -42,7 +66,60 @@ public class EventManager {
     }
 
     private EventManager() {
+        if(Boolean.getBoolean(ASYNC_DISPATCH)) {
+            setAsynchronous(true);
+        }
+    }
+
+    public boolean isAsynchronous() {
+        return asyncDispatcher!=null;
+    }
+
+    /**
+     * Enables or disables asynchronous event dispatch. When disabling, all
+     * pending events are delivered before this method returns.
+     *
+     * @param async
+     *            {@code true} to queue events for delivery on the AWT
+     *            event dispatch thread, {@code false} to deliver them on the
+     *            dispatching thread.
+     */
+    public void setAsynchronous(boolean async) {
+        setAsyncDispatcher(async? new AsyncEventDispatcher(): null);
+    }
+
+    /**
+     * Installs the {@code AsyncEventDispatcher} used to deliver events, or
+     * {@code null} to deliver events on the dispatching thread. Any previously
+     * installed dispatcher is stopped after its pending events are delivered.
+     *
+     * @param dispatcher
+     *            the dispatcher to use, or {@code null}
+     */
+    public synchronized void setAsyncDispatcher(AsyncEventDispatcher dispatcher) {
+        AsyncEventDispatcher old = asyncDispatcher;
+        if(old==dispatcher) {
+            return;
+        }
+
+        if(dispatcher!=null) {
+            dispatcher.start();
+        }
+        asyncDispatcher = dispatcher;
+        if(old!=null) {
+            old.stop();
+        }
+    }
 
+    /**
+     * Returns the {@code AsyncEventDispatcher} currently in use, which exposes
+     * queue and backpressure statistics, or {@code null} if events are
+     * delivered synchronously.
+     *
+     * @return the current {@code AsyncEventDispatcher}, or {@code null}
+     */
+    public AsyncEventDispatcher getAsyncDispatcher() {
+        return asyncDispatcher;
     }
 
 
@@ -92,32 +169,77 @@ public class EventManager {
 
 
     public void addEventHandler(EventHandler handler) {
-        if(handler!=null) {
-            handlers.push(handler);
+        if(handler==null) {
+            return;
+        }
+
+        synchronized(this) {
+            EventHandler[] current = handlers;
+            EventHandler[] next = new EventHandler[current.length+1];
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = handler;
+            handlers = next;
+            handlersByEventClass = new HashMap();
         }
     }
 
     public void removeEventHandler(EventHandler handler) {
-        if(handler!=null) {
-            handlers.remove(handler);
+        if(handler==null) {
+            return;
+        }
+
+        synchronized(this) {
+            EventHandler[] current = handlers;
+            int index = -1;
+            for(int i=0; i<current.length; i++) {
+                if(handler.equals(current[i])) {
+                    index = i;
+                    break;
+                }
+            }
+            if(index==-1) {
+                return;
+            }
+
+            EventHandler[] next = new EventHandler[current.length-1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index+1, next, index, next.length-index);
+            handlers = next;
+            handlersByEventClass = new HashMap();
         }
     }
 
     private EventHandler getHandler(Event evt) {
-        for(Iterator it=handlers.iterator(); it.hasNext();) {
-            EventHandler handler = (EventHandler)it.next();
-            if(handler.acceptsEvent(evt)) {
-                return handler;
+        Class evtClass = evt.getClass();
+        Object cached = handlersByEventClass.get(evtClass);
+        if(cached==null) {
+            cached = cacheHandler(evt);
+        }
+        return cached==NO_HANDLER? null: (EventHandler)cached;
+    }
+
+    private synchronized Object cacheHandler(Event evt) {
+        EventHandler handler = null;
+        EventHandler[] current = handlers;
+        for(int i=0; i<current.length; i++) {
+            if(current[i].acceptsEvent(evt)) {
+                handler = current[i];
+                break;
             }
         }
-        return null;
+
+        Object value = handler==null? NO_HANDLER: handler;
+        HashMap table = new HashMap(handlersByEventClass);
+        table.put(evt.getClass(), value);
+        handlersByEventClass = table;
+        return value;
     }
 
     private EventHandler getHandler(EventListener listener) {
-        for(Iterator it=handlers.iterator(); it.hasNext();) {
-            EventHandler handler = (EventHandler)it.next();
-            if(handler.acceptsListener(listener)) {
-                return handler;
+        EventHandler[] current = handlers;
+        for(int i=0; i<current.length; i++) {
+            if(current[i].acceptsListener(listener)) {
+                return current[i];
             }
         }
         return null;
@@ -143,21 +265,41 @@ public class EventManager {
     }
 
     public void dispatchEvent(Event evt, Object target) {
-        Object[] targets = null;
         if(target instanceof Collection) {
-            targets = ((Collection)target).toArray();
-        } else if(target!=null) {
-            targets = new Object[] {target};
+            dispatchEvent(evt, ((Collection)target).toArray());
+            return;
         }
 
-        dispatchEvent(evt, targets);
+        EventHandler handler = evt==null? null: getHandler(evt);
+        if(handler==null) {
+            return;
+        }
 
+        AsyncEventDispatcher async = asyncDispatcher;
+        if(async!=null) {
+            if(!evt.isSynchronous()) {
+                async.enqueue(handler, evt, target, null);
+                return;
+            }
+            async.flush();
+        }
+        handler.handleEvent(evt, target);
     }
 
     public void dispatchEvent(Event evt, Object[] targets) {
         EventHandler handler = evt==null? null: getHandler(evt);
-        if(handler!=null) {
-            handler.handleEvent(evt, targets);
+        if(handler==null) {
+            return;
+        }
+
+        AsyncEventDispatcher async = asyncDispatcher;
+        if(async!=null) {
+            if(!evt.isSynchronous()) {
+                async.enqueue(handler, evt, null, targets==null? null: targets.clone());
+                return;
+            }
+            async.flush();
         }
+        handler.handleEvent(evt, targets);
     }
 }
@@ -0,0 +1,251 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.docking.drag.preview;
+
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the preview images used by {@link GhostPreview}.  Each dockable is
+ * rendered once, at its current size, when a drag operation starts.  Previews
+ * for other sizes are scaled from that image and cached in size buckets, so
+ * that moving across targets of slightly different sizes reuses the same
+ * image.  The cache is least-recently-used ordered and bounded by an
+ * approximate memory limit.
+ * <p>
+ * The dockable itself is never resized; its size at the time of the drag is
+ * what gets rendered.
+ */
+public class GhostImageCache {
+    /**
+     * System property holding the cache's default memory limit, in kilobytes.
+     */
+    public static final String MEMORY_LIMIT = "drag.ghost.cache.limit";
+
+    public static final int DEFAULT_MEMORY_LIMIT = 32*1024*1024;
+
+    private static final int BUCKET_SIZE = 16;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final LinkedHashMap entries = new LinkedHashMap(16, 0.75f, true);
+    private long memoryLimit;
+    private long memoryUsage;
+    private long hits;
+    private long misses;
+
+    public GhostImageCache() {
+        this(Integer.getInteger(MEMORY_LIMIT, DEFAULT_MEMORY_LIMIT/1024).longValue()*1024);
+    }
+
+    public GhostImageCache(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Re-renders the dockable at its current size and discards all previews
+     * previously scaled from it.
+     */
+    public synchronized void refresh(Component dockable) {
+        remove(dockable);
+        BufferedImage image = render(dockable);
+        if(image!=null) {
+            put(new Key(dockable, 0, 0), image);
+        }
+    }
+
+    /**
+     * Returns a preview image of the dockable, roughly the requested size.
+     * The returned image is at least as large as the requested size, in
+     * steps of a few pixels, and should be drawn scaled to the exact bounds.
+     *
+     * @return the preview image, or {@code null} if the dockable cannot be
+     *         rendered.
+     */
+    public synchronized BufferedImage getPreview(Component dockable, int width, int height) {
+        if(dockable==null || width<=0 || height<=0) {
+            return null;
+        }
+
+        Key key = new Key(dockable, bucket(width), bucket(height));
+        BufferedImage image = (BufferedImage)entries.get(key);
+        if(image!=null) {
+            hits++;
+            return image;
+        }
+        misses++;
+
+        Key baseKey = new Key(dockable, 0, 0);
+        BufferedImage base = (BufferedImage)entries.get(baseKey);
+        if(base==null) {
+            base = render(dockable);
+            if(base==null) {
+                return null;
+            }
+            put(baseKey, base);
+        }
+
+        image = scale(base, key.width, key.height);
+        put(key, image);
+        return image;
+    }
+
+    /**
+     * Discards all images of the given dockable.
+     */
+    public synchronized void remove(Component dockable) {
+        for(Iterator it=entries.entrySet().iterator(); it.hasNext();) {
+            Map.Entry entry = (Map.Entry)it.next();
+            Key key = (Key)entry.getKey();
+            Object owner = key.owner.get();
+            if(owner==null || owner==dockable) {
+                memoryUsage -= sizeOf((BufferedImage)entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        memoryUsage = 0;
+    }
+
+    public synchronized long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public synchronized void setMemoryLimit(long bytes) {
+        memoryLimit = Math.max(0, bytes);
+        trim(null);
+    }
+
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private void put(Key key, BufferedImage image) {
+        // an image larger than the whole cache is used once and dropped
+        if(sizeOf(image)>memoryLimit) {
+            return;
+        }
+        Object old = entries.put(key, image);
+        if(old!=null) {
+            memoryUsage -= sizeOf((BufferedImage)old);
+        }
+        memoryUsage += sizeOf(image);
+        trim(key);
+    }
+
+    private void trim(Key keep) {
+        Iterator it = entries.entrySet().iterator();
+        while(memoryUsage>memoryLimit && it.hasNext()) {
+            Map.Entry entry = (Map.Entry)it.next();
+            if(entry.getKey().equals(keep)) {
+                continue;
+            }
+            memoryUsage -= sizeOf((BufferedImage)entry.getValue());
+            it.remove();
+        }
+    }
+
+    private static BufferedImage render(Component dockable) {
+        int width = dockable.getWidth();
+        int height = dockable.getHeight();
+        if(width<=0 || height<=0) {
+            return null;
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            dockable.paintAll(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static BufferedImage scale(BufferedImage base, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(base, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static int bucket(int size) {
+        return (size + BUCKET_SIZE - 1) / BUCKET_SIZE * BUCKET_SIZE;
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long)image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    private static class Key {
+        private final WeakReference owner;
+        private final int hash;
+        private final int width;
+        private final int height;
+
+        private Key(Component owner, int width, int height) {
+            this.owner = new WeakReference(owner);
+            this.width = width;
+            this.height = height;
+            this.hash = (System.identityHashCode(owner)*31 + width)*31 + height;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)obj;
+            Object o = owner.get();
+            return o!=null && o==other.owner.get() && width==other.width && height==other.height;
+        }
+    }
+
+}
@@ -23,7 +23,6 @@ import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Composite;
-import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Polygon;
 import java.awt.Rectangle;
@@ -33,7 +32,6 @@ import java.util.Map;
 import org.flexdock.docking.Dockable;
 import org.flexdock.docking.DockingPort;
 import org.flexdock.docking.drag.effects.DefaultPreview;
-import org.flexdock.util.SwingUtility;
 
 /**
  * @author Christopher Butler
@@ -41,6 +39,17 @@ import org.flexdock.util.SwingUtility;
 public class GhostPreview extends DefaultPreview {
     private static final String PREVIOUS_BOUNDS = "TestPreview.PREVIOUS_BOUNDS";
     private static final String PREVIEW_IMG = "TestPreview.PREVIEW_IMG";
+    private static final String IMAGE_CACHED = "GhostPreview.IMAGE_CACHED";
+    private static final GhostImageCache IMAGE_CACHE = new GhostImageCache();
+
+    /**
+     * Returns the image cache shared by all {@code GhostPreviews}.
+     *
+     * @return the shared preview image cache
+     */
+    public static GhostImageCache getImageCache() {
+        return IMAGE_CACHE;
+    }
 
     @Override
     public Polygon createPreviewPolygon(Component dockable, DockingPort port, Dockable hover, String targetRegion, Component paintingTarget, Map dragInfo) {
@@ -50,24 +59,27 @@ public class GhostPreview extends DefaultPreview {
             return null;
         }
 
+        // the drag context is new for each drag operation.  render the
+        // dockable afresh the first time we see it, so we don't show a
+        // preview left over from an earlier drag.
+        if(!dragInfo.containsKey(IMAGE_CACHED)) {
+            IMAGE_CACHE.refresh(dockable);
+            dragInfo.put(IMAGE_CACHED, Boolean.TRUE);
+        }
+
         // check to see if the current polygon bounds differ from the
         // last time we calculated them.
         Rectangle prevBounds = (Rectangle)dragInfo.get(PREVIOUS_BOUNDS);
         Rectangle bounds = polygon.getBounds();
-        // if the polygon bounds have changed, create a new BufferedImage
-        // to represent the dockable preview.  this image will be used
-        // in drawPreview()
+        // if the polygon bounds have changed, look up a preview image of
+        // the new size.  this image will be used in drawPreview()
         if(!bounds.equals(prevBounds)) {
-            // store the original dockable size
-            Dimension origSize = dockable.getSize();
-            // change the dockable to match the preview size while
-            // we generate an image off of it
-            dockable.setSize(bounds.getSize());
-            BufferedImage img = SwingUtility.createImage(dockable);
-            // store the image for use in drawPreview()
-            dragInfo.put(PREVIEW_IMG, img);
-            // restore the original dockable size
-            dockable.setSize(origSize);
+            BufferedImage img = IMAGE_CACHE.getPreview(dockable, bounds.width, bounds.height);
+            if(img==null) {
+                dragInfo.remove(PREVIEW_IMG);
+            } else {
+                dragInfo.put(PREVIEW_IMG, img);
+            }
         }
         // store the current preview bounds so we'll know the next time we need
         // to regenerate the preview image
@@ -92,8 +104,9 @@ public class GhostPreview extends DefaultPreview {
         // make the graphics 50% translucent
         Composite composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f);
         g.setComposite(composite);
-        // now draw the preview image
-        g.drawImage(image, bounds.x, bounds.y, null);
+        // now draw the preview image.  cached images come in size steps,
+        // so scale it to the exact preview bounds.
+        g.drawImage(image, bounds.x, bounds.y, bounds.width, bounds.height, null);
     }
 
     @Override
@@ -21,8 +21,10 @@ package org.flexdock.perspective;
 
 import java.awt.Component;
 import java.awt.Container;
-import java.awt.EventQueue;
 import java.awt.Point;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.swing.JSplitPane;
 import javax.swing.JTabbedPane;
@@ -51,6 +53,8 @@ import org.flexdock.util.SwingUtility;
 public class DockingStateListener extends DockingListener.Stub {
 
     private boolean isEnabled = true;
+    // persistent id -> Dockable whose embedded state is out of date
+    private LinkedHashMap dirtyStates = new LinkedHashMap();
 
     public synchronized boolean isEnabled() {
         return isEnabled;
@@ -61,7 +65,7 @@ public class DockingStateListener extends DockingListener.Stub {
     }
 
     @Override
-    public void dockingComplete(final DockingEvent dockingEvent) {
+    public void dockingComplete(DockingEvent dockingEvent) {
         if(!isEnabled()) {
             return;
         }
@@ -82,18 +86,73 @@ public class DockingStateListener extends DockingListener.Stub {
             floatManager.removeFromGroup(dockable);
         }
 
-        EventQueue.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                updateState(dockingEvent);
-            }
-        });
+        // nobody reads the embedded state until the next save or restore, so
+        // just flag it here and compute it on demand.
+        markDirty(dockable);
     }
 
-    @Override
-    public void undockingStarted(DockingEvent evt) {
-        if(isEnabled()) {
-            updateState(evt);
+    /**
+     * Flags the embedded state of the specified {@code Dockable} as out of
+     * date. It is recomputed by the next call to {@code updateDirtyStates()}.
+     */
+    public synchronized void markDirty(Dockable dockable) {
+        if(dockable!=null && dockable.getPersistentId()!=null) {
+            dirtyStates.put(dockable.getPersistentId(), dockable);
+        }
+    }
+
+    private synchronized void clearDirty(Dockable dockable) {
+        if(dockable!=null) {
+            dirtyStates.remove(dockable.getPersistentId());
+        }
+    }
+
+    public synchronized boolean hasDirtyStates() {
+        return !dirtyStates.isEmpty();
+    }
+
+    /**
+     * Recomputes the embedded state of every {@code Dockable} flagged by
+     * {@code markDirty()}, building all of their {@code DockingPaths} in a
+     * single walk of the docking tree. {@code Dockables} that have not been
+     * validated since they were docked stay flagged until they are.
+     */
+    public void updateDirtyStates() {
+        Dockable[] dockables;
+        synchronized(this) {
+            if(dirtyStates.isEmpty()) {
+                return;
+            }
+            dockables = (Dockable[])dirtyStates.values().toArray(new Dockable[dirtyStates.size()]);
+            dirtyStates = new LinkedHashMap();
+        }
+
+        // isEmbedded() reads DockingStates itself, so the unvalidated ones
+        // are only flagged again once the dirty set has been drained.
+        ArrayList embedded = new ArrayList(dockables.length);
+        ArrayList pending = new ArrayList();
+        for(int i=0; i<dockables.length; i++) {
+            if(!DockingUtility.isEmbedded(dockables[i])) {
+                continue;
+            }
+            if(dockables[i].getComponent().isValid()) {
+                embedded.add(dockables[i]);
+            } else {
+                pending.add(dockables[i]);
+            }
+        }
+
+        dockables = (Dockable[])embedded.toArray(new Dockable[embedded.size()]);
+        Map paths = DockingPath.create(dockables);
+        for(int i=0; i<dockables.length; i++) {
+            DockingPath path = paths.containsKey(dockables[i])? (DockingPath)paths.get(dockables[i]): DockingPath.create(dockables[i]);
+            updateCenterPoint(dockables[i]);
+            getDockingState(dockables[i]).setPath(path);
+            updateRelative(dockables[i]);
+        }
+
+        for(int i=0; i<pending.size(); i++) {
+            markDirty((Dockable)pending.get(i));
         }
     }
 
@@ -101,6 +160,7 @@ public class DockingStateListener extends DockingListener.Stub {
         if(dockable==null) {
             return;
         }
+        clearDirty(dockable);
 
         if(DockingUtility.isEmbedded(dockable)) {
             updateEmbedded(dockable);
@@ -117,10 +177,6 @@ public class DockingStateListener extends DockingListener.Stub {
         updateRelative(dockable);
     }
 
-    private void updateState(DockingEvent evt) {
-        updateState(evt.getDockable());
-    }
-
     private float getSplitPaneRatio(Dockable dockable, String region) {
         // check to see if the dockable was in a split layout.  if so, get the deepest split
         // node we can find so we can grab the split proportion percentage.
@@ -221,7 +277,9 @@ public class DockingStateListener extends DockingListener.Stub {
     }
 
     private DockingState getDockingState(Dockable dockable) {
-        return getPerspective().getDockingState(dockable, true);
+        // go straight to the Layout.  Perspective.getDockingState() would
+        // bring every other dirty state up to date first.
+        return getPerspective().getLayout().getDockingState(dockable, true);
     }
 
     private Perspective getPerspective() {
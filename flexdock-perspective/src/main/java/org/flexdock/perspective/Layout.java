@@ -29,10 +29,12 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.flexdock.docking.Dockable;
 import org.flexdock.docking.DockingManager;
 import org.flexdock.docking.DockingPort;
+import org.flexdock.docking.defaults.ComponentPool;
 import org.flexdock.docking.floating.frames.DockingFrame;
 import org.flexdock.docking.state.DockingState;
 import org.flexdock.docking.state.FloatManager;
@@ -56,6 +58,8 @@ public class Layout implements Cloneable, FloatManager, Serializable {
     private LayoutNode restorationLayout;
 
     private transient ArrayList layoutListeners;
+    // snapshot copies of our DockingStates, keyed by dockable id
+    private transient HashMap snapshotCache;
 
     public Layout() {
         this(new HashMap(), new ArrayList(), new Hashtable());
@@ -201,20 +205,39 @@ public class Layout implements Cloneable, FloatManager, Serializable {
     }
 
     public void apply(DockingPort dockingPort) {
+        apply(dockingPort, System.nanoTime());
+    }
+
+    void apply(DockingPort dockingPort, long startTime) {
         Component comp = (Component)dockingPort;
         if(comp==null || !isInitialized()) {
             //                if(comp==null || comp.getParent()==null || !isInitialized())
             return;
         }
 
-        // clear out the existing components
-        PerspectiveManager.clear(dockingPort);
-
-        // restore the layout
+        // reuse the components cached when we were last switched away from,
+        // or patch the existing components if we can.  otherwise clear them
+        // out and restore the layout from scratch.
+        boolean cached = false;
+        boolean patched = false;
         boolean listening = PerspectiveManager.isDockingStateListening();
         PerspectiveManager.setDockingStateListening(false);
         try {
-            dockingPort.importLayout(restorationLayout);
+            cached = PerspectiveManager.getPerspectiveCache().restore(this, dockingPort);
+            if(!cached && PerspectiveManager.isLayoutPatching()) {
+                patched = LayoutPatcher.getInstance().patch(dockingPort, restorationLayout);
+            }
+            if(!cached && !patched) {
+                // restorationLayout may still reference ports from when it
+                // was exported.  those can be part of a cached tree now.
+                LayoutNode layout = restorationLayout;
+                if(PerspectiveManager.getPerspectiveCache().isEnabled()) {
+                    layout = (LayoutNode)layout.clone();
+                }
+                ComponentPool.getInstance().releaseTree(dockingPort.getDockedComponent());
+                dockingPort.clear();
+                dockingPort.importLayout(layout);
+            }
         } finally {
             PerspectiveManager.setDockingStateListening(listening);
         }
@@ -248,6 +271,9 @@ public class Layout implements Cloneable, FloatManager, Serializable {
 
         // send notification
         LayoutEvent evt = new LayoutEvent(this, null, null, LayoutEvent.LAYOUT_APPLIED);
+        evt.setElapsedTime(System.nanoTime()-startTime);
+        evt.setPatched(patched);
+        evt.setCached(cached);
         EventManager.dispatch(evt);
     }
 
@@ -341,6 +367,66 @@ public class Layout implements Cloneable, FloatManager, Serializable {
 
     }
 
+    /**
+     * Returns a detached copy of this <code>Layout</code> for persistence.
+     * Unlike {@link #clone()}, <code>DockingState</code>s that have not been
+     * modified since the previous snapshot are not copied again; the copy made
+     * back then is shared with the new snapshot.  This makes repeated
+     * snapshots cost in proportion to the number of changed states.  Since
+     * state objects may be shared between snapshots, a snapshot must be
+     * treated as read-only.
+     *
+     * @return a read-only copy of this <code>Layout</code>.
+     */
+    public Layout snapshot() {
+        synchronized(this) {
+            if(snapshotCache==null) {
+                snapshotCache = new HashMap();
+            }
+
+            HashMap infoMap = new HashMap((int)(dockingInfo.size()/0.75f)+1);
+            for(Iterator it=dockingInfo.entrySet().iterator(); it.hasNext();) {
+                Map.Entry entry = (Map.Entry)it.next();
+                DockingState info = (DockingState)entry.getValue();
+                SnapshotEntry cached = (SnapshotEntry)snapshotCache.get(entry.getKey());
+                if(cached==null || !cached.isCurrent(info)) {
+                    cached = new SnapshotEntry(info);
+                    snapshotCache.put(entry.getKey(), cached);
+                }
+                infoMap.put(entry.getKey(), cached.copy);
+            }
+            if(snapshotCache.size()>dockingInfo.size()) {
+                snapshotCache.keySet().retainAll(dockingInfo.keySet());
+            }
+
+            Hashtable floatTable = new Hashtable();
+            for(Iterator it=floatingGroups.entrySet().iterator(); it.hasNext();) {
+                Map.Entry entry = (Map.Entry)it.next();
+                floatTable.put(entry.getKey(), ((FloatingGroup)entry.getValue()).clone());
+            }
+
+            Layout snapshot = new Layout(infoMap, (ArrayList)getLayoutListeners().clone(), floatTable);
+            snapshot.restorationLayout = restorationLayout==null? null: (LayoutNode)restorationLayout.clone();
+            return snapshot;
+        }
+    }
+
+    private static class SnapshotEntry {
+        private final DockingState source;
+        private final int modCount;
+        private final DockingState copy;
+
+        private SnapshotEntry(DockingState source) {
+            this.source = source;
+            this.modCount = source.getModificationCount();
+            this.copy = (DockingState)source.clone();
+        }
+
+        private boolean isCurrent(DockingState state) {
+            return state==source && state.getModificationCount()==modCount;
+        }
+    }
+
     private DockingFrame getDockingFrame(Dockable dockable, Component frameOwner) {
         FloatingGroup group = getGroup(dockable);
         if(group==null) {
@@ -0,0 +1,244 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.perspective;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.DockingManager;
+import org.flexdock.docking.DockingPort;
+import org.flexdock.docking.defaults.ComponentPool;
+import org.flexdock.docking.defaults.DefaultDockingPort;
+import org.flexdock.docking.defaults.DockingSplitPane;
+import org.flexdock.docking.state.LayoutNode;
+import org.flexdock.docking.state.tree.DockableNode;
+import org.flexdock.docking.state.tree.DockingPortNode;
+import org.flexdock.docking.state.tree.SplitNode;
+import org.flexdock.util.SwingUtility;
+
+/**
+ * Applies a {@code LayoutNode} to a {@code DockingPort} by patching the
+ * component tree that is already there instead of clearing it out and
+ * importing the whole layout again.
+ * <p>
+ * The live tree and the target layout are walked side by side.  Split panes
+ * with the same orientation and docking region are kept along with their
+ * sub-ports and only have their divider moved.  Ports whose tabs already hold
+ * the target {@code Dockables} in the target order are left alone.  Every
+ * other port is cleared and its part of the target layout is imported into
+ * it.
+ */
+public class LayoutPatcher {
+    private static final LayoutPatcher SINGLETON = new LayoutPatcher();
+    private static final float DIVIDER_TOLERANCE = 0.001f;
+
+    public static LayoutPatcher getInstance() {
+        return SINGLETON;
+    }
+
+    private LayoutPatcher() {
+
+    }
+
+    public boolean isPatchable(DockingPort port, LayoutNode layout) {
+        return port instanceof DefaultDockingPort && layout instanceof DockingPortNode;
+    }
+
+    /**
+     * Returns the {@code Dockables} currently docked within the specified
+     * port that the specified layout docks within it as well.  These may stay
+     * where they are while {@code patch()} is applied.
+     */
+    public Set getRetainedDockables(DockingPort port, LayoutNode layout) {
+        HashSet retained = new HashSet();
+        if(!isPatchable(port, layout)) {
+            return retained;
+        }
+
+        HashSet ids = new HashSet();
+        collectDockableIds(layout, ids);
+        for(Iterator it=port.getDockables().iterator(); it.hasNext();) {
+            Dockable dockable = (Dockable)it.next();
+            if(dockable!=null && ids.contains(dockable.getPersistentId())) {
+                retained.add(dockable);
+            }
+        }
+        return retained;
+    }
+
+    /**
+     * Brings the layout within the specified port in line with the specified
+     * {@code LayoutNode}.  The {@code LayoutNode} itself is not modified.
+     *
+     * @return {@code false} if the port or layout cannot be patched, in which
+     *         case nothing has been changed.
+     */
+    public boolean patch(DockingPort port, LayoutNode layout) {
+        if(!isPatchable(port, layout)) {
+            return false;
+        }
+
+        // work on a copy.  cached layouts still reference the ports they
+        // were exported from, and those may be anywhere in the live tree now.
+        DockingPortNode target = (DockingPortNode)layout.clone();
+        ArrayList rebuilds = new ArrayList();
+        match((DefaultDockingPort)port, target, rebuilds);
+
+        // detach everything first so no dockable is pulled out from under
+        // a port that is rebuilt later on
+        for(int i=0; i<rebuilds.size(); i++) {
+            DockingPortNode node = (DockingPortNode)rebuilds.get(i);
+            detach((DefaultDockingPort)node.getUserObject());
+        }
+        for(int i=0; i<rebuilds.size(); i++) {
+            DockingPortNode node = (DockingPortNode)rebuilds.get(i);
+            ((DockingPort)node.getUserObject()).importLayout(node);
+        }
+
+        ((Component)port).revalidate();
+        ((Component)port).repaint();
+        return true;
+    }
+
+    private void match(DefaultDockingPort port, DockingPortNode node, ArrayList rebuilds) {
+        node.setUserObject(port);
+        Component docked = port.getDockedComponent();
+
+        if(node.isSplit()) {
+            SplitNode splitNode = (SplitNode)node.getChildAt(0);
+            if(!isMatch(docked, splitNode)) {
+                rebuilds.add(node);
+                return;
+            }
+
+            JSplitPane split = (JSplitPane)docked;
+            splitNode.setUserObject(split);
+            updateDivider(split, splitNode.getPercentage());
+            match((DefaultDockingPort)split.getLeftComponent(), (DockingPortNode)splitNode.getChildAt(0), rebuilds);
+            match((DefaultDockingPort)split.getRightComponent(), (DockingPortNode)splitNode.getChildAt(1), rebuilds);
+            return;
+        }
+
+        if(!getDockableIds(docked).equals(getDockableIds(node))) {
+            rebuilds.add(node);
+        }
+    }
+
+    private boolean isMatch(Component docked, SplitNode node) {
+        if(!(docked instanceof JSplitPane) || node.getChildCount()!=2) {
+            return false;
+        }
+
+        JSplitPane split = (JSplitPane)docked;
+        if(!(split.getLeftComponent() instanceof DefaultDockingPort) || !(split.getRightComponent() instanceof DefaultDockingPort)) {
+            return false;
+        }
+        if(!(node.getChildAt(0) instanceof DockingPortNode) || !(node.getChildAt(1) instanceof DockingPortNode)) {
+            return false;
+        }
+
+        // the docking region decides which side the elder component sits on,
+        // so a split pane created for a different region can't be reused
+        String region = (String)SwingUtility.getClientProperty(split, DockingConstants.REGION);
+        return split.getOrientation()==node.getOrientation() && region!=null && region.equals(node.getDockingRegion());
+    }
+
+    private void updateDivider(JSplitPane split, float percent) {
+        if(percent==-1) {
+            return;
+        }
+
+        float current;
+        if (split instanceof DockingSplitPane && ((DockingSplitPane) split).getPercent() != -1) {
+            current = (float) ((DockingSplitPane) split).getPercent();
+        } else {
+            current = SwingUtility.getDividerProportion(split);
+        }
+        if(Math.abs(current-percent)>DIVIDER_TOLERANCE) {
+            split.setDividerLocation(percent);
+        }
+    }
+
+    private ArrayList getDockableIds(Component docked) {
+        ArrayList ids = new ArrayList();
+        if(docked instanceof JTabbedPane) {
+            JTabbedPane tabs = (JTabbedPane)docked;
+            for(int i=0; i<tabs.getTabCount(); i++) {
+                addDockableId(ids, DockingManager.getDockable(tabs.getComponentAt(i)));
+            }
+        } else if(docked!=null) {
+            addDockableId(ids, DockingManager.getDockable(docked));
+        }
+        return ids;
+    }
+
+    private ArrayList getDockableIds(DockingPortNode node) {
+        ArrayList ids = new ArrayList();
+        for(Enumeration en=node.children(); en.hasMoreElements();) {
+            Object child = en.nextElement();
+            if(child instanceof DockableNode) {
+                // importLayout() skips dockables that aren't registered
+                addDockableId(ids, ((DockableNode)child).getDockable());
+            }
+        }
+        return ids;
+    }
+
+    private void addDockableId(ArrayList ids, Dockable dockable) {
+        if(dockable!=null) {
+            ids.add(dockable.getPersistentId());
+        }
+    }
+
+    private void collectDockableIds(LayoutNode node, Set ids) {
+        if(node instanceof DockableNode) {
+            ids.add(((DockableNode)node).getDockableId());
+        }
+        for(Enumeration en=node.children(); en.hasMoreElements();) {
+            collectDockableIds((LayoutNode)en.nextElement(), ids);
+        }
+    }
+
+    private void detach(DefaultDockingPort port) {
+        // pull the dockables out of whatever nested containers they are in so
+        // they don't linger inside orphaned sub-ports once we clear the port
+        for(Iterator it=port.getDockables().iterator(); it.hasNext();) {
+            Dockable dockable = (Dockable)it.next();
+            Component comp = dockable==null? null: dockable.getComponent();
+            Container parent = comp==null? null: comp.getParent();
+            if(parent!=null) {
+                parent.remove(comp);
+            }
+        }
+        Component content = port.getDockedComponent();
+        PerspectiveManager.clear(port);
+        ComponentPool.getInstance().releaseTree(content);
+    }
+}
@@ -20,6 +20,7 @@
 package org.flexdock.perspective;
 
 import java.io.Serializable;
+import java.util.Set;
 
 import org.flexdock.docking.Dockable;
 import org.flexdock.docking.DockingManager;
@@ -97,18 +98,20 @@ public class Perspective implements Cloneable, Serializable {
     }
 
     public DockingState getDockingState(String dockable) {
-        return getLayout().getDockingState(dockable, false);
+        return getDockingState(dockable, false);
     }
 
     public DockingState getDockingState(Dockable dockable) {
-        return getLayout().getDockingState(dockable, false);
+        return getDockingState(dockable, false);
     }
 
     public DockingState getDockingState(String dockable, boolean load) {
+        PerspectiveManager.updateDirtyDockingStates();
         return getLayout().getDockingState(dockable, load);
     }
 
     public DockingState getDockingState(Dockable dockable, boolean load) {
+        PerspectiveManager.updateDirtyDockingStates();
         return getLayout().getDockingState(dockable, load);
     }
 
@@ -148,9 +151,13 @@ public class Perspective implements Cloneable, Serializable {
     }
 
     public void load(DockingPort port) {
+        load(port, System.nanoTime());
+    }
+
+    void load(DockingPort port, long startTime) {
         Layout layout = getLayout();
         if(layout.isInitialized()) {
-            layout.apply(port);
+            layout.apply(port, startTime);
             EventManager.getInstance().dispatchEvent(new PerspectiveEvent(this, null, PerspectiveEvent.RESET));
         } else {
             reset(port);
@@ -158,9 +165,15 @@ public class Perspective implements Cloneable, Serializable {
     }
 
     public void unload() {
+        unload(null);
+    }
+
+    void unload(Set retained) {
         Dockable[] dockables = getLayout().getDockables();
         for(int i=0; i<dockables.length; i++) {
-            DockingManager.close(dockables[i]);
+            if(retained==null || !retained.contains(dockables[i])) {
+                DockingManager.close(dockables[i]);
+            }
         }
     }
 
@@ -172,6 +185,19 @@ public class Perspective implements Cloneable, Serializable {
         }
     }
 
+    /**
+     * Returns a read-only copy of this <code>Perspective</code> for
+     * persistence, built with {@link Layout#snapshot()}.
+     *
+     * @return a read-only copy of this <code>Perspective</code>.
+     */
+    public Perspective snapshot() {
+        Perspective snapshot = new Perspective(this.persistentId, this.perspectiveName);
+        snapshot.layout = this.layout.snapshot();
+        snapshot.initalSequence = this.initalSequence==null? null: (LayoutSequence)this.initalSequence.clone();
+        return snapshot;
+    }
+
     @Override
     public Object clone() {
         Perspective clone = new Perspective(this.persistentId, this.perspectiveName);
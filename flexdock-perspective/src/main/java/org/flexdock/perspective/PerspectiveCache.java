@@ -0,0 +1,324 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.perspective;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.Icon;
+import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingManager;
+import org.flexdock.docking.DockingPort;
+import org.flexdock.docking.defaults.ComponentPool;
+import org.flexdock.docking.defaults.DefaultDockingPort;
+import org.flexdock.docking.state.LayoutNode;
+
+/**
+ * Keeps the split panes, sub-ports and tabbed panes of recently used
+ * perspectives alive after they have been switched away from, so switching
+ * back only has to put the {@code Dockables} back into their tabs instead of
+ * rebuilding the layout.
+ * <p>
+ * The {@code Dockables} themselves are taken out of a tree when it is cached.
+ * They are undocked as far as the rest of the framework is concerned and are
+ * free to be docked into other perspectives, and a tree only ever holds on
+ * to empty containers.  A tree is only reused if every one of its
+ * {@code Dockables} is still undocked when it is restored.
+ * <p>
+ * Entries are evicted least recently used first, once there are more than
+ * {@code getMaxEntries()} of them or they hold more than
+ * {@code getMaxComponents()} components between them.
+ */
+class PerspectiveCache {
+    private int maxEntries;
+    private int maxComponents = 5000;
+    private int componentCount;
+    // Layout -> Entry, in access order
+    private LinkedHashMap entries = new LinkedHashMap(16, 0.75f, true);
+
+    int getMaxEntries() {
+        return maxEntries;
+    }
+
+    void setMaxEntries(int maxEntries) {
+        this.maxEntries = Math.max(maxEntries, 0);
+        evict(null);
+    }
+
+    int getMaxComponents() {
+        return maxComponents;
+    }
+
+    void setMaxComponents(int maxComponents) {
+        this.maxComponents = Math.max(maxComponents, 0);
+        evict(null);
+    }
+
+    boolean isEnabled() {
+        return maxEntries>0;
+    }
+
+    /**
+     * Detaches the contents of the specified port and caches them for the
+     * specified {@code Layout}.  If the contents can't be cached, the port is
+     * left as it is.  The entry for {@code next}, the layout about to be
+     * applied, is not evicted to make room.
+     */
+    boolean store(Layout layout, DockingPort port, Layout next) {
+        remove(layout);
+        if(!isEnabled() || !(port instanceof DefaultDockingPort)) {
+            return false;
+        }
+
+        DefaultDockingPort root = (DefaultDockingPort)port;
+        Component content = root.getDockedComponent();
+        if(content==null) {
+            return false;
+        }
+
+        ArrayList slots = new ArrayList();
+        collectSlots(content, slots);
+        for(int i=0; i<slots.size(); i++) {
+            if(DockingManager.isMaximized(((Slot)slots.get(i)).dockable)) {
+                return false;
+            }
+        }
+
+        for(int i=slots.size()-1; i>=0; i--) {
+            ((Slot)slots.get(i)).detach();
+        }
+        PerspectiveManager.clear(root);
+
+        Entry entry = new Entry(root, content, layout.getRestorationLayout(), slots);
+        entries.put(layout, entry);
+        componentCount += entry.size;
+        evict(next);
+        return true;
+    }
+
+    /**
+     * Puts the cached contents for the specified {@code Layout} back into
+     * the specified port.  Returns {@code false} if there is no usable entry,
+     * in which case the port has not been touched.
+     */
+    boolean restore(Layout layout, DockingPort port) {
+        Entry entry = take(layout);
+        if(entry==null) {
+            return false;
+        }
+        if(entry.port!=port || entry.layoutNode!=layout.getRestorationLayout()) {
+            discard(entry);
+            return false;
+        }
+
+        for(int i=0; i<entry.slots.size(); i++) {
+            Slot slot = (Slot)entry.slots.get(i);
+            if(DockingManager.getDockable(slot.dockable.getPersistentId())!=slot.dockable
+                    || slot.dockable.getComponent().getParent()!=null) {
+                discard(entry);
+                return false;
+            }
+        }
+
+        PerspectiveManager.clear(entry.port);
+        for(int i=0; i<entry.slots.size(); i++) {
+            ((Slot)entry.slots.get(i)).attach();
+        }
+        for(int i=0; i<entry.slots.size(); i++) {
+            ((Slot)entry.slots.get(i)).select();
+        }
+        entry.port.add(entry.content);
+        entry.port.revalidate();
+        entry.port.repaint();
+        return true;
+    }
+
+    void remove(Layout layout) {
+        discard(take(layout));
+    }
+
+    void clear() {
+        for(Iterator it=entries.values().iterator(); it.hasNext();) {
+            discard((Entry)it.next());
+        }
+        entries.clear();
+        componentCount = 0;
+    }
+
+    private Entry take(Layout layout) {
+        Entry entry = (Entry)entries.remove(layout);
+        if(entry!=null) {
+            componentCount -= entry.size;
+        }
+        return entry;
+    }
+
+    private void discard(Entry entry) {
+        // the dockables have been detached already, what's left are containers
+        if(entry!=null) {
+            ComponentPool.getInstance().releaseTree(entry.content);
+        }
+    }
+
+    private void evict(Layout keep) {
+        // the entry we keep is restored and removed right away, so it
+        // doesn't count against the entry limit
+        int max = entries.containsKey(keep)? maxEntries+1: maxEntries;
+        for(Iterator it=entries.entrySet().iterator(); it.hasNext();) {
+            if(entries.size()<=max && componentCount<=maxComponents) {
+                break;
+            }
+            Map.Entry mapEntry = (Map.Entry)it.next();
+            if(mapEntry.getKey()==keep) {
+                continue;
+            }
+            componentCount -= ((Entry)mapEntry.getValue()).size;
+            it.remove();
+            discard((Entry)mapEntry.getValue());
+        }
+    }
+
+    private void collectSlots(Component comp, ArrayList slots) {
+        if(comp instanceof JTabbedPane) {
+            JTabbedPane tabs = (JTabbedPane)comp;
+            int selected = tabs.getSelectedIndex();
+            for(int i=0; i<tabs.getTabCount(); i++) {
+                Dockable dockable = DockingManager.getDockable(tabs.getComponentAt(i));
+                if(dockable!=null) {
+                    slots.add(new Slot(tabs, i, i==selected, dockable));
+                }
+            }
+        } else if(comp instanceof DockingPort) {
+            collectSlots(((DockingPort)comp).getDockedComponent(), slots);
+        } else if(comp instanceof JSplitPane) {
+            collectSlots(((JSplitPane)comp).getLeftComponent(), slots);
+            collectSlots(((JSplitPane)comp).getRightComponent(), slots);
+        } else if(comp!=null && comp.getParent() instanceof DefaultDockingPort) {
+            Dockable dockable = DockingManager.getDockable(comp);
+            if(dockable!=null) {
+                slots.add(new Slot((DefaultDockingPort)comp.getParent(), dockable));
+            }
+        }
+    }
+
+    private static int countComponents(Component comp) {
+        int count = 1;
+        if(comp instanceof Container) {
+            Component[] children = ((Container)comp).getComponents();
+            for(int i=0; i<children.length; i++) {
+                count += countComponents(children[i]);
+            }
+        }
+        return count;
+    }
+
+    private static class Entry {
+        private final DefaultDockingPort port;
+        private final Component content;
+        private final LayoutNode layoutNode;
+        private final ArrayList slots;
+        private final int size;
+
+        private Entry(DefaultDockingPort port, Component content, LayoutNode layoutNode, ArrayList slots) {
+            this.port = port;
+            this.content = content;
+            this.layoutNode = layoutNode;
+            this.slots = slots;
+            // measured after the dockables have been taken out
+            this.size = countComponents(content);
+        }
+    }
+
+    /**
+     * Where a {@code Dockable} sat within a cached tree: either a tab, or
+     * directly within a port that doesn't use tabs.
+     */
+    private static class Slot {
+        private final Dockable dockable;
+        private final JTabbedPane tabs;
+        private final DefaultDockingPort port;
+        private final int index;
+        private final boolean selected;
+        private final String title;
+        private final Icon icon;
+        private final String toolTip;
+        private final Component tabComponent;
+
+        private Slot(JTabbedPane tabs, int index, boolean selected, Dockable dockable) {
+            this.dockable = dockable;
+            this.tabs = tabs;
+            this.port = null;
+            this.index = index;
+            this.selected = selected;
+            title = tabs.getTitleAt(index);
+            icon = tabs.getIconAt(index);
+            toolTip = tabs.getToolTipTextAt(index);
+            tabComponent = tabs.getTabComponentAt(index);
+        }
+
+        private Slot(DefaultDockingPort port, Dockable dockable) {
+            this.dockable = dockable;
+            this.tabs = null;
+            this.port = port;
+            index = -1;
+            selected = false;
+            title = null;
+            icon = null;
+            toolTip = null;
+            tabComponent = null;
+        }
+
+        private void detach() {
+            Component comp = dockable.getComponent();
+            if(tabs!=null) {
+                tabs.remove(comp);
+            } else {
+                port.remove(comp);
+            }
+        }
+
+        private void attach() {
+            Component comp = dockable.getComponent();
+            if(tabs!=null) {
+                // slots are attached in the order they were collected, so
+                // every earlier tab is already back in place
+                tabs.insertTab(title, icon, comp, toolTip, index);
+                if(tabComponent!=null) {
+                    tabs.setTabComponentAt(index, tabComponent);
+                }
+            } else {
+                port.add(comp);
+            }
+        }
+
+        private void select() {
+            if(selected) {
+                tabs.setSelectedIndex(index);
+            }
+        }
+    }
+}
@@ -62,6 +62,7 @@ public class PerspectiveManager implements LayoutManager {
     public static final String DEFAULT_PERSISTENCE_KEY_VALUE = "perspectiveFile.data";
     private static final PerspectiveManager SINGLETON = new PerspectiveManager();
     private static final DockingStateListener UPDATE_LISTENER = new DockingStateListener();
+    private static final PerspectiveCache PERSPECTIVE_CACHE = new PerspectiveCache();
 
     private HashMap perspectives = new HashMap();
     private PerspectiveFactory perspectiveFactory;
@@ -69,6 +70,7 @@ public class PerspectiveManager implements LayoutManager {
     private String currentPerspective;
     private PersistenceHandler persistHandler;
     private boolean restoreFloatingOnLoad;
+    private boolean layoutPatching = true;
     private String defaultPersistenceKey;
 
     static {
@@ -145,6 +147,7 @@ public class PerspectiveManager implements LayoutManager {
         }
 
         this.perspectives.remove(perspectiveId);
+        PERSPECTIVE_CACHE.remove(perspective.getLayout());
 
         //set defaultPerspective
         if(this.defaultPerspective.equals(perspectiveId)) {
@@ -429,14 +432,25 @@ public class PerspectiveManager implements LayoutManager {
             return;
         }
 
+        long startTime = System.nanoTime();
         Perspective current = getCurrentPerspective();
         final Perspective perspective = getPerspective(perspectiveId);
 
         // remember the current layout state so we'll be able to
         // restore when we switch back
         if(current!=null) {
+            updateDirtyDockingStates();
             cacheLayoutState(current, rootPort);
-            current.unload();
+            // when the new layout is going to be patched in, leave the
+            // dockables it shares with the current one docked.  if the
+            // current tree is cached instead, its dockables are taken out
+            // of it and there is nothing left to patch.
+            Set retained = null;
+            if(!PERSPECTIVE_CACHE.store(current.getLayout(), rootPort, perspective==null? null: perspective.getLayout())
+                    && !reset && perspective!=null && isLayoutPatching() && perspective.getLayout().isInitialized()) {
+                retained = LayoutPatcher.getInstance().getRetainedDockables(rootPort, perspective.getLayout().getRestorationLayout());
+            }
+            current.unload(retained);
         }
 
         // if the new perspective isn't available, then we're done
@@ -447,11 +461,12 @@ public class PerspectiveManager implements LayoutManager {
         synchronized(this) {
             setCurrentPerspectiveName(perspectiveId);
             if(reset) {
+                PERSPECTIVE_CACHE.remove(perspective.getLayout());
                 perspective.reset(rootPort);
                 EventManager.dispatch(new PerspectiveEvent(perspective, current,
                                       PerspectiveEvent.RESET));
             } else {
-                perspective.load(rootPort);
+                perspective.load(rootPort, startTime);
                 EventManager.dispatch(new PerspectiveEvent(perspective, current,
                                       PerspectiveEvent.CHANGED));
             }
@@ -483,6 +498,13 @@ public class PerspectiveManager implements LayoutManager {
         return RestorationManager.getInstance().restore(dockable);
     }
 
+    @Override
+    public void captureDockingState(Dockable dockable) {
+        if(isDockingStateListening()) {
+            UPDATE_LISTENER.updateState(dockable);
+        }
+    }
+
     static void setDockingStateListening(boolean enabled) {
         UPDATE_LISTENER.setEnabled(enabled);
     }
@@ -500,19 +522,25 @@ public class PerspectiveManager implements LayoutManager {
         }
     }
 
-    static void updateDockingStates(final Dockable[] dockables) {
+    static void updateDockingStates(Dockable[] dockables) {
         if(dockables==null) {
             return;
         }
 
-        EventQueue.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                for(int i=0; i<dockables.length; i++) {
-                    UPDATE_LISTENER.updateState(dockables[i]);
-                }
-            }
-        });
+        for(int i=0; i<dockables.length; i++) {
+            UPDATE_LISTENER.markDirty(dockables[i]);
+        }
+    }
+
+    /**
+     * Brings the <code>DockingState</code> of every dockable that has been
+     * docked since its state was last read up to date.  States are computed
+     * lazily; this is done automatically before they are read through
+     * <code>Perspective</code> and before the current layout is cached or
+     * persisted.
+     */
+    public static void updateDirtyDockingStates() {
+        UPDATE_LISTENER.updateDirtyStates();
     }
 
     @Override
@@ -526,17 +554,31 @@ public class PerspectiveManager implements LayoutManager {
             return false;
         }
 
+        PerspectiveModel info = createSnapshot();
+        String pKey = persistenceKey==null? this.defaultPersistenceKey: persistenceKey;
+        return this.persistHandler.store(pKey, info);
+    }
+
+    /**
+     * Caches the layout of the current perspective and returns a
+     * <code>PerspectiveModel</code> holding snapshots of all perspectives.  The
+     * returned model is detached from the live layout, so it may be persisted
+     * on another thread, but it must not be modified.  This method should be called from the event
+     * dispatch thread.
+     *
+     * @return a detached copy of the current perspective state.
+     */
+    public synchronized PerspectiveModel createSnapshot() {
         DockingPort rootPort = findMainDockingPort();
+        updateDirtyDockingStates();
         cacheLayoutState(getCurrentPerspective(), rootPort);
 
         Perspective[] items = getPerspectives();
         for(int i=0; i<items.length; i++) {
-            items[i] = (Perspective)items[i].clone();
+            items[i] = items[i].snapshot();
         }
 
-        PerspectiveModel info = new PerspectiveModel(this.defaultPerspective, getCurrentPerspectiveName(), items);
-        String pKey = persistenceKey==null? this.defaultPersistenceKey: persistenceKey;
-        return this.persistHandler.store(pKey, info);
+        return new PerspectiveModel(this.defaultPerspective, getCurrentPerspectiveName(), items);
     }
 
     @Override
@@ -559,6 +601,7 @@ public class PerspectiveManager implements LayoutManager {
         Perspective[] perspectives = info.getPerspectives();
 
         this.perspectives.clear();
+        PERSPECTIVE_CACHE.clear();
         for(int i=0; i<perspectives.length; i++) {
             add(perspectives[i]);
         }
@@ -575,6 +618,56 @@ public class PerspectiveManager implements LayoutManager {
         getInstance().restoreFloatingOnLoad = restoreFloatingOnLoad;
     }
 
+    public static boolean isLayoutPatching() {
+        return getInstance().layoutPatching;
+    }
+
+    /**
+     * Sets whether switching perspectives patches the components that are
+     * already docked into the new layout, keeping the ones both layouts
+     * share, or clears the root port and rebuilds the new layout from
+     * scratch.  Patching is on by default.
+     *
+     * @see LayoutPatcher
+     */
+    public static void setLayoutPatching(boolean layoutPatching) {
+        getInstance().layoutPatching = layoutPatching;
+    }
+
+    public static int getCachedPerspectiveCount() {
+        return PERSPECTIVE_CACHE.getMaxEntries();
+    }
+
+    /**
+     * Sets how many of the most recently used perspectives keep their
+     * split panes, sub-ports and tabbed panes alive after being switched
+     * away from, so that switching back to them doesn't rebuild their
+     * layout.  {@code 0}, the default, turns the cache off.
+     *
+     * @see #setCachedComponentLimit(int)
+     */
+    public static void setCachedPerspectiveCount(int count) {
+        PERSPECTIVE_CACHE.setMaxEntries(count);
+    }
+
+    public static int getCachedComponentLimit() {
+        return PERSPECTIVE_CACHE.getMaxComponents();
+    }
+
+    /**
+     * Sets the total number of Swing components the cached perspectives may
+     * hold on to before the least recently used ones are dropped.
+     *
+     * @see #setCachedPerspectiveCount(int)
+     */
+    public static void setCachedComponentLimit(int limit) {
+        PERSPECTIVE_CACHE.setMaxComponents(limit);
+    }
+
+    static PerspectiveCache getPerspectiveCache() {
+        return PERSPECTIVE_CACHE;
+    }
+
     //FIXME returns wrong window (first found) for multiple frames
     public static RootWindow getMainApplicationWindow() {
         RootWindow[] windows = DockingManager.getDockingWindows();
@@ -35,6 +35,9 @@ public class LayoutEvent extends Event {
 
     private Layout oldLayout;
     private Dockable dockable;
+    private long elapsedTime = -1;
+    private boolean patched;
+    private boolean cached;
 
     public LayoutEvent(Layout layout, Layout oldLayout, String dockableId, int evtType) {
         super(layout, evtType);
@@ -49,4 +52,44 @@ public class LayoutEvent extends Event {
     public Dockable getDockable() {
         return dockable;
     }
+
+    /**
+     * Returns the time in nanoseconds it took to apply the layout, or
+     * {@code -1} if this is not a {@code LAYOUT_APPLIED} event.  When the
+     * layout was applied as part of a perspective switch, this covers the
+     * whole switch, including unloading the previous perspective.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public void setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Returns {@code true} if the layout was applied by patching the
+     * components that were already docked rather than rebuilding them.
+     */
+    public boolean isPatched() {
+        return patched;
+    }
+
+    public void setPatched(boolean patched) {
+        this.patched = patched;
+    }
+
+    /**
+     * Returns {@code true} if the layout was applied by reusing the
+     * components cached when its perspective was last switched away from.
+     *
+     * @see org.flexdock.perspective.PerspectiveManager#setCachedPerspectiveCount(int)
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
 }
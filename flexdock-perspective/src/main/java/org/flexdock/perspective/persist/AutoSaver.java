@@ -0,0 +1,411 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.perspective.persist;
+
+import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+import org.flexdock.docking.event.DockingEvent;
+import org.flexdock.docking.event.DockingListener;
+import org.flexdock.event.EventManager;
+import org.flexdock.perspective.PerspectiveManager;
+import org.flexdock.perspective.event.LayoutEvent;
+import org.flexdock.perspective.event.LayoutListener;
+
+/**
+ * Saves the perspective layout in the background while the application runs.
+ * <p>
+ * Docking and layout activity marks the layout dirty and (re)starts a short
+ * debounce timer, so a burst of changes results in a single save.  A periodic
+ * timer makes sure that continuous activity still gets saved now and then.
+ * Snapshots are taken on the event dispatch thread through
+ * {@link PerspectiveManager#createSnapshot()}, while serialization and file
+ * I/O happen on a dedicated worker thread.  If a new snapshot is taken before
+ * the previous one was written, only the newest one is written.
+ * <p>
+ * Combined with the write-to-temp-and-rename behavior of
+ * {@link FilePersistenceHandler}, a crash at any point leaves either the
+ * previous or the new layout on disk.
+ */
+public class AutoSaver implements Runnable {
+    /**
+     * System property holding the default debounce delay in milliseconds.
+     */
+    public static final String DEBOUNCE_DELAY = "perspective.autosave.delay";
+    /**
+     * System property holding the default autosave period in milliseconds.
+     */
+    public static final String SAVE_PERIOD = "perspective.autosave.period";
+
+    public static final int DEFAULT_DEBOUNCE_DELAY = 2000;
+    public static final int DEFAULT_SAVE_PERIOD = 30000;
+
+    private final PerspectiveManager manager;
+    private final Object lock = new Object();
+    // EventManager wires each listener object to a single event handler, so
+    // docking and layout events need a listener each
+    private final DockingActivityListener dockingListener = new DockingActivityListener();
+    private final LayoutActivityListener layoutListener = new LayoutActivityListener();
+    private final Timer debounceTimer;
+    private final Timer periodTimer;
+
+    private volatile boolean dirty;
+    private volatile String persistenceKey;
+    private Thread thread;
+    private boolean running;
+    private PerspectiveModel pending;
+    private boolean writing;
+
+    private long snapshotCount;
+    private long snapshotNanos;
+    private long maxSnapshotNanos;
+    private long writeCount;
+    private long writeNanos;
+    private long maxWriteNanos;
+    private long failedWriteCount;
+    private long supersededCount;
+
+    public AutoSaver() {
+        this(PerspectiveManager.getInstance());
+    }
+
+    public AutoSaver(PerspectiveManager manager) {
+        this.manager = manager;
+
+        ActionListener saveAction = new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                snapshot(false);
+            }
+        };
+        debounceTimer = new Timer(Integer.getInteger(DEBOUNCE_DELAY, DEFAULT_DEBOUNCE_DELAY).intValue(), saveAction);
+        debounceTimer.setRepeats(false);
+        periodTimer = new Timer(Integer.getInteger(SAVE_PERIOD, DEFAULT_SAVE_PERIOD).intValue(), saveAction);
+    }
+
+    /**
+     * Starts listening for layout changes and starts the worker thread.
+     */
+    public void start() {
+        synchronized(lock) {
+            if(running) {
+                return;
+            }
+            running = true;
+            // a worker that is still finishing up after stop() is reused
+            if(thread==null) {
+                thread = new Thread(this, "FlexDock Autosave");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+        EventManager.addListener(dockingListener);
+        EventManager.addListener(layoutListener);
+        periodTimer.start();
+    }
+
+    /**
+     * Stops listening for layout changes.  A snapshot that has already been
+     * taken is still written before the worker thread exits.
+     */
+    public void stop() {
+        EventManager.removeListener(dockingListener);
+        EventManager.removeListener(layoutListener);
+        debounceTimer.stop();
+        periodTimer.stop();
+        synchronized(lock) {
+            running = false;
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isRunning() {
+        synchronized(lock) {
+            return running;
+        }
+    }
+
+    public int getDebounceDelay() {
+        return debounceTimer.getInitialDelay();
+    }
+
+    public void setDebounceDelay(int delay) {
+        debounceTimer.setInitialDelay(delay);
+        debounceTimer.setDelay(delay);
+    }
+
+    public int getSavePeriod() {
+        return periodTimer.getDelay();
+    }
+
+    public void setSavePeriod(int period) {
+        periodTimer.setInitialDelay(period);
+        periodTimer.setDelay(period);
+    }
+
+    public String getPersistenceKey() {
+        return persistenceKey;
+    }
+
+    /**
+     * Sets the persistence key to save to.  <code>null</code>, the default,
+     * uses the default persistence key of the <code>PerspectiveManager</code>.
+     */
+    public void setPersistenceKey(String key) {
+        persistenceKey = key;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks the layout as changed and restarts the debounce timer.  May be
+     * called from any thread.
+     */
+    public void markDirty() {
+        dirty = true;
+        if(EventQueue.isDispatchThread()) {
+            debounceTimer.restart();
+        } else {
+            EventQueue.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    debounceTimer.restart();
+                }
+            });
+        }
+    }
+
+    /**
+     * Takes a snapshot right away, whether or not the layout is dirty, and
+     * queues it for writing.
+     */
+    public void saveNow() {
+        if(EventQueue.isDispatchThread()) {
+            snapshot(true);
+        } else {
+            EventQueue.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    snapshot(true);
+                }
+            });
+        }
+    }
+
+    /**
+     * Blocks until every queued snapshot has been written.  Returns
+     * immediately when called from the worker thread.
+     */
+    public void flush() {
+        synchronized(lock) {
+            if(Thread.currentThread()==thread) {
+                return;
+            }
+            while(pending!=null || writing) {
+                try {
+                    lock.wait();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void snapshot(boolean force) {
+        if(!force && !dirty) {
+            return;
+        }
+        dirty = false;
+        debounceTimer.stop();
+
+        long start = System.nanoTime();
+        PerspectiveModel model = manager.createSnapshot();
+        long elapsed = System.nanoTime() - start;
+
+        synchronized(lock) {
+            snapshotCount++;
+            snapshotNanos += elapsed;
+            maxSnapshotNanos = Math.max(maxSnapshotNanos, elapsed);
+            if(pending!=null) {
+                supersededCount++;
+            }
+            pending = model;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        while(true) {
+            PerspectiveModel model;
+            synchronized(lock) {
+                while(pending==null && running) {
+                    try {
+                        lock.wait();
+                    } catch(InterruptedException e) {
+                        // keep going until stopped
+                    }
+                }
+                if(pending==null) {
+                    thread = null;
+                    lock.notifyAll();
+                    return;
+                }
+                model = pending;
+                pending = null;
+                writing = true;
+            }
+
+            long start = System.nanoTime();
+            boolean failed = false;
+            try {
+                PersistenceHandler handler = PerspectiveManager.getPersistenceHandler();
+                if(handler!=null) {
+                    String key = persistenceKey==null? manager.getDefaultPersistenceKey(): persistenceKey;
+                    handler.store(key, model);
+                }
+            } catch(Exception e) {
+                failed = true;
+                System.err.println("Exception: " + e.getMessage());
+                e.printStackTrace();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            synchronized(lock) {
+                writing = false;
+                if(failed) {
+                    failedWriteCount++;
+                } else {
+                    writeCount++;
+                    writeNanos += elapsed;
+                    maxWriteNanos = Math.max(maxWriteNanos, elapsed);
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    public long getSnapshotCount() {
+        synchronized(lock) {
+            return snapshotCount;
+        }
+    }
+
+    /**
+     * Returns the average time, in microseconds, spent taking a snapshot on
+     * the event dispatch thread.
+     */
+    public long getAverageSnapshotTime() {
+        synchronized(lock) {
+            return snapshotCount==0? 0: snapshotNanos / snapshotCount / 1000;
+        }
+    }
+
+    /**
+     * Returns the longest time, in microseconds, spent taking a snapshot.
+     */
+    public long getMaxSnapshotTime() {
+        synchronized(lock) {
+            return maxSnapshotNanos / 1000;
+        }
+    }
+
+    public long getWriteCount() {
+        synchronized(lock) {
+            return writeCount;
+        }
+    }
+
+    /**
+     * Returns the average time, in microseconds, the worker thread spent
+     * serializing and writing a snapshot.
+     */
+    public long getAverageWriteTime() {
+        synchronized(lock) {
+            return writeCount==0? 0: writeNanos / writeCount / 1000;
+        }
+    }
+
+    /**
+     * Returns the longest time, in microseconds, spent writing a snapshot.
+     */
+    public long getMaxWriteTime() {
+        synchronized(lock) {
+            return maxWriteNanos / 1000;
+        }
+    }
+
+    public long getFailedWriteCount() {
+        synchronized(lock) {
+            return failedWriteCount;
+        }
+    }
+
+    /**
+     * Returns the number of snapshots that were replaced by a newer one
+     * before they could be written.
+     */
+    public long getSupersededSnapshotCount() {
+        synchronized(lock) {
+            return supersededCount;
+        }
+    }
+
+    private class DockingActivityListener extends DockingListener.Stub {
+        @Override
+        public void dockingComplete(DockingEvent evt) {
+            markDirty();
+        }
+
+        @Override
+        public void undockingComplete(DockingEvent evt) {
+            markDirty();
+        }
+    }
+
+    private class LayoutActivityListener implements LayoutListener {
+        @Override
+        public void layoutApplied(LayoutEvent evt) {
+            markDirty();
+        }
+
+        @Override
+        public void layoutEmptied(LayoutEvent evt) {
+            markDirty();
+        }
+
+        @Override
+        public void dockableHidden(LayoutEvent evt) {
+            markDirty();
+        }
+
+        @Override
+        public void dockableDisplayed(LayoutEvent evt) {
+            markDirty();
+        }
+    }
+
+}
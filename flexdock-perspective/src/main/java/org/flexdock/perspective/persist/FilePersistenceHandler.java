@@ -18,12 +18,17 @@
  */
 package org.flexdock.perspective.persist;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import org.flexdock.docking.state.PersistenceException;
+import org.flexdock.perspective.persist.xml.StaxPersister;
 import org.flexdock.perspective.persist.xml.XMLPersister;
 
 /**
@@ -34,9 +39,24 @@ import org.flexdock.perspective.persist.xml.XMLPersister;
  */
 public class FilePersistenceHandler implements PersistenceHandler {
     public static final File DEFAULT_PERSPECTIVE_DIR = new File(System.getProperty("user.home") + "/flexdock/perspectives");
+    /**
+     * System property which, when set to <code>true</code>, makes the default
+     * persister stream the XML through {@link StaxPersister} instead of
+     * building a DOM with {@link XMLPersister}.
+     */
+    public static final String STREAMING_XML = "perspective.persist.streaming";
+    /**
+     * System property holding the default number of rolling backups kept
+     * next to a perspective file.  Defaults to <code>0</code>.
+     */
+    public static final String BACKUP_COUNT = "perspective.persist.backups";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
 
     protected File defaultPerspectiveFile;
     protected Persister persister = null;
+    private int backupCount = Integer.getInteger(BACKUP_COUNT, 0).intValue();
 
     public FilePersistenceHandler(String absolutePath) {
         this(new File(absolutePath), null);
@@ -67,30 +87,114 @@ public class FilePersistenceHandler implements PersistenceHandler {
      * {@inheritDoc}
      */
     @Override
-    public boolean store(String persistenceKey, PerspectiveModel perspectiveModel) throws IOException, PersistenceException {
+    public synchronized boolean store(String persistenceKey, PerspectiveModel perspectiveModel) throws IOException, PersistenceException {
         File file = getPerspectiveFile(persistenceKey);
         validatePerspectiveFile(file);
 
 //        XMLDebugger.println(perspectiveModel);
 
-        FileOutputStream fos = new FileOutputStream(file);
+        // write the whole model to a temp file first and swap it in afterwards,
+        // so a crash in the middle of a save never leaves a truncated layout
+        File temp = new File(file.getParentFile(), file.getName() + TEMP_SUFFIX);
+        boolean stored = false;
         try {
-            return this.persister.store(fos, perspectiveModel);
+            FileOutputStream fos = new FileOutputStream(temp);
+            try {
+                BufferedOutputStream out = new BufferedOutputStream(fos);
+                stored = this.persister.store(out, perspectiveModel);
+                out.flush();
+                fos.getFD().sync();
+            } finally {
+                fos.close();
+            }
+
+            if(stored) {
+                rollBackups(file);
+                replace(temp, file);
+            }
         } finally {
-            fos.close();
+            if(temp.exists()) {
+                temp.delete();
+            }
+        }
+        return stored;
+    }
+
+    private void rollBackups(File file) throws IOException {
+        if(backupCount<1 || !file.exists() || file.length()==0) {
+            return;
+        }
+
+        for(int i=backupCount-1; i>0; i--) {
+            File backup = getBackupFile(file, i);
+            if(backup.exists()) {
+                Files.move(backup.toPath(), getBackupFile(file, i+1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // copy rather than move, so the current file stays in place until
+        // the new one replaces it
+        Files.copy(file.toPath(), getBackupFile(file, 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void replace(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
+    /**
+     * Returns the <code>index</code>th rolling backup of <code>file</code>,
+     * <code>1</code> being the most recent one.
+     */
+    public File getBackupFile(File file, int index) {
+        return new File(file.getParentFile(), file.getName() + BACKUP_SUFFIX + index);
+    }
+
+    public int getBackupCount() {
+        return backupCount;
+    }
+
+    /**
+     * Sets the number of previous versions kept as <code>.bak1</code>,
+     * <code>.bak2</code>, ... next to the perspective file whenever it is
+     * overwritten.  <code>0</code> disables backups.
+     */
+    public void setBackupCount(int backupCount) {
+        this.backupCount = Math.max(0, backupCount);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public PerspectiveModel load(String persistenceKey) throws IOException, PersistenceException {
+    public synchronized PerspectiveModel load(String persistenceKey) throws IOException, PersistenceException {
         File file = getPerspectiveFile(persistenceKey);
         if(file==null || !file.exists()) {
             return null;
         }
 
+        try {
+            return load(file);
+        } catch(PersistenceException e) {
+            // fall back on the most recent backup that is still readable
+            for(int i=1; i<=backupCount; i++) {
+                File backup = getBackupFile(file, i);
+                if(!backup.exists()) {
+                    continue;
+                }
+                try {
+                    return load(backup);
+                } catch(PersistenceException ex) {
+                    // try the next one
+                }
+            }
+            throw e;
+        }
+    }
+
+    private PerspectiveModel load(File file) throws IOException, PersistenceException {
         FileInputStream fis = new FileInputStream(file);
 
         try {
@@ -141,6 +245,9 @@ public class FilePersistenceHandler implements PersistenceHandler {
     @Override
     public Persister createDefaultPersister() {
 //                return new DefaultFilePersister();
+        if(Boolean.getBoolean(STREAMING_XML)) {
+            return StaxPersister.newDefaultInstance();
+        }
         return XMLPersister.newDefaultInstance();
     }
 
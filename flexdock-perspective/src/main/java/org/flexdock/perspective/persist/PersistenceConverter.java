@@ -0,0 +1,110 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.perspective.persist;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.flexdock.docking.state.PersistenceException;
+import org.flexdock.perspective.persist.binary.BinaryPersister;
+import org.flexdock.perspective.persist.xml.XMLPersister;
+
+/**
+ * Utility methods for converting stored <code>PerspectiveModel</code>s between
+ * the XML and binary formats.
+ */
+public class PersistenceConverter {
+
+    private PersistenceConverter() {
+        // utility class
+    }
+
+    /**
+     * Reads a model from <code>in</code> with <code>source</code> and writes
+     * it to <code>out</code> with <code>target</code>.
+     *
+     * @return <code>false</code> if <code>in</code> contained no model.
+     */
+    public static boolean convert(InputStream in, Persister source, OutputStream out, Persister target) throws IOException, PersistenceException {
+        PerspectiveModel model = source.load(in);
+        if(model==null) {
+            return false;
+        }
+        return target.store(out, model);
+    }
+
+    public static boolean convert(File in, Persister source, File out, Persister target) throws IOException, PersistenceException {
+        InputStream is = new BufferedInputStream(new FileInputStream(in));
+        try {
+            PerspectiveModel model = source.load(is);
+            if(model==null) {
+                return false;
+            }
+            OutputStream os = new BufferedOutputStream(new FileOutputStream(out));
+            try {
+                return target.store(os, model);
+            } finally {
+                os.close();
+            }
+        } finally {
+            is.close();
+        }
+    }
+
+    public static boolean xmlToBinary(File xmlFile, File binaryFile) throws IOException, PersistenceException {
+        return convert(xmlFile, XMLPersister.newDefaultInstance(), binaryFile, BinaryPersister.newDefaultInstance());
+    }
+
+    public static boolean binaryToXml(File binaryFile, File xmlFile) throws IOException, PersistenceException {
+        return convert(binaryFile, BinaryPersister.newDefaultInstance(), xmlFile, XMLPersister.newDefaultInstance());
+    }
+
+    /**
+     * Returns a <code>Persister</code> able to read <code>file</code>, based on
+     * its leading bytes.
+     */
+    public static Persister getPersister(File file) throws IOException {
+        byte[] header = new byte[BinaryPersister.MAGIC.length];
+        InputStream is = new FileInputStream(file);
+        try {
+            int count = 0;
+            while(count<header.length) {
+                int read = is.read(header, count, header.length-count);
+                if(read<0) {
+                    break;
+                }
+                count += read;
+            }
+        } finally {
+            is.close();
+        }
+        if(BinaryPersister.isBinaryFormat(header)) {
+            return BinaryPersister.newDefaultInstance();
+        }
+        return XMLPersister.newDefaultInstance();
+    }
+
+}
@@ -0,0 +1,591 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.perspective.persist.binary;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.state.DockingPath;
+import org.flexdock.docking.state.DockingState;
+import org.flexdock.docking.state.FloatingGroup;
+import org.flexdock.docking.state.LayoutNode;
+import org.flexdock.docking.state.PersistenceException;
+import org.flexdock.docking.state.tree.DockableNode;
+import org.flexdock.docking.state.tree.DockingPortNode;
+import org.flexdock.docking.state.tree.SplitNode;
+import org.flexdock.perspective.Layout;
+import org.flexdock.perspective.LayoutSequence;
+import org.flexdock.perspective.Perspective;
+import org.flexdock.perspective.persist.Persister;
+import org.flexdock.perspective.persist.PerspectiveModel;
+
+/**
+ * A compact binary <code>Persister</code> for <code>PerspectiveModel</code>s.
+ * It stores exactly the information written by
+ * {@link org.flexdock.perspective.persist.xml.XMLPersister}, so a model loaded
+ * from either format is the same.
+ * <p>
+ * The stream starts with {@link #MAGIC} and a format version.  Integers are
+ * written as varints (signed values zig-zag encoded), floats as their raw
+ * bits, and every string is written once and referenced by its index in a
+ * string table afterwards, so repeated dockable ids and region names cost a
+ * byte or two each.
+ * <p>
+ * The whole model is encoded into a reusable buffer and handed to the target
+ * stream with a single write, which keeps frequent saves cheap.
+ */
+public class BinaryPersister implements Persister {
+
+    /**
+     * Marker written at the start of every binary perspective file.
+     */
+    public static final byte[] MAGIC = { 'F', 'D', 'P', 'M' };
+
+    /**
+     * The format version written by this persister.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int STRING_NULL = 0;
+    private static final int STRING_NEW = 1;
+    private static final int STRING_REF = 2;
+
+    private static final int NODE_DOCKING_PORT = 1;
+    private static final int NODE_SPLIT = 2;
+    private static final int NODE_DOCKABLE = 3;
+
+    private static final int STATE_SPLIT_RATIO = 1;
+    private static final int STATE_FLOATING = 1 << 1;
+    private static final int STATE_MINIMIZED = 1 << 2;
+    private static final int STATE_CENTER = 1 << 3;
+    private static final int STATE_PATH = 1 << 4;
+    private static final int STATE_TABBED = 1 << 5;
+
+    private final Buffer buffer = new Buffer();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean store(OutputStream os, PerspectiveModel perspectiveModel) throws IOException, PersistenceException {
+        synchronized(buffer) {
+            buffer.reset();
+            Encoder encoder = new Encoder(buffer);
+            buffer.write(MAGIC);
+            encoder.writeVarInt(FORMAT_VERSION);
+            encoder.writePerspectiveModel(perspectiveModel);
+            buffer.writeTo(os);
+            // don't hold on to the backing array of an unusually large model
+            buffer.trim();
+        }
+        os.flush();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PerspectiveModel load(InputStream is) throws IOException, PersistenceException {
+        InputStream in = new BufferedInputStream(is);
+        Decoder decoder = new Decoder(in);
+        for(int i=0; i<MAGIC.length; i++) {
+            int b = in.read();
+            if(b==-1 && i==0) {
+                return null;
+            }
+            if(b!=MAGIC[i]) {
+                throw new PersistenceException("Not a binary perspective file", null);
+            }
+        }
+        int version = decoder.readVarInt();
+        if(version<1 || version>FORMAT_VERSION) {
+            throw new PersistenceException("Unsupported binary perspective format version: " + version, null);
+        }
+        return decoder.readPerspectiveModel();
+    }
+
+    public static BinaryPersister newDefaultInstance() {
+        return new BinaryPersister();
+    }
+
+    /**
+     * Returns <code>true</code> if <code>header</code> starts with
+     * {@link #MAGIC}.
+     */
+    public static boolean isBinaryFormat(byte[] header) {
+        if(header==null || header.length<MAGIC.length) {
+            return false;
+        }
+        for(int i=0; i<MAGIC.length; i++) {
+            if(header[i]!=MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalizeRegion(String region) {
+        return region==null? null: region.toLowerCase();
+    }
+
+    private static String denormalizeRegion(String region) {
+        return region==null? null: region.toUpperCase();
+    }
+
+    private static boolean isEmpty(String value) {
+        return value==null || value.length()==0;
+    }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        private static final int INITIAL_SIZE = 8192;
+        private static final int RETAINED_SIZE = 1024*1024;
+
+        private Buffer() {
+            super(INITIAL_SIZE);
+        }
+
+        private void trim() {
+            if(buf.length>RETAINED_SIZE) {
+                buf = new byte[INITIAL_SIZE];
+            }
+            reset();
+        }
+    }
+
+    private static class Encoder {
+        private final OutputStream out;
+        private final HashMap strings = new HashMap();
+
+        private Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        private void writePerspectiveModel(PerspectiveModel model) throws IOException {
+            writeString(model.getCurrentPerspective());
+            writeString(model.getDefaultPerspective());
+
+            Perspective[] perspectives = model.getPerspectives();
+            writeVarInt(perspectives.length);
+            for(int i=0; i<perspectives.length; i++) {
+                writePerspective(perspectives[i]);
+            }
+        }
+
+        private void writePerspective(Perspective perspective) throws IOException {
+            writeString(perspective.getPersistentId());
+            writeString(perspective.getName());
+            writeLayout(perspective.getLayout());
+
+            LayoutSequence sequence = perspective.getInitialSequence();
+            if(sequence==null) {
+                writeVarInt(0);
+                return;
+            }
+            List states = sequence.getDockingStates();
+            writeVarInt(states.size()+1);
+            for(Iterator it=states.iterator(); it.hasNext();) {
+                writeDockingState((DockingState)it.next());
+            }
+        }
+
+        private void writeLayout(Layout layout) throws IOException {
+            Dockable[] dockables = layout.getDockables();
+            writeVarInt(dockables.length);
+            for(int i=0; i<dockables.length; i++) {
+                writeDockingState(layout.getDockingState(dockables[i]));
+            }
+
+            String[] groupIds = layout.getFloatingGroupIds();
+            writeVarInt(groupIds.length);
+            for(int i=0; i<groupIds.length; i++) {
+                writeFloatingGroup(layout.getGroup(groupIds[i]));
+            }
+
+            LayoutNode restoration = layout.getRestorationLayout();
+            if(restoration==null) {
+                writeVarInt(0);
+            } else {
+                writeLayoutNode(restoration);
+            }
+        }
+
+        private void writeDockingState(DockingState state) throws IOException {
+            int flags = 0;
+            if(state.getSplitRatio()!=DockingConstants.UNINITIALIZED_RATIO) {
+                flags |= STATE_SPLIT_RATIO;
+            }
+            if(state.isMinimized()) {
+                flags |= STATE_MINIMIZED;
+            } else if(state.isFloating()) {
+                flags |= STATE_FLOATING;
+            }
+            if(state.hasCenterPoint()) {
+                flags |= STATE_CENTER;
+            }
+            DockingPath path = state.getPath();
+            if(path!=null) {
+                flags |= STATE_PATH;
+                if(path.isTabbed()) {
+                    flags |= STATE_TABBED;
+                }
+            }
+
+            writeVarInt(flags);
+            writeString(state.getDockableId());
+            writeString(isEmpty(state.getRelativeParentId())? null: state.getRelativeParentId());
+            writeString(normalizeRegion(state.getRegion()));
+            if((flags & STATE_SPLIT_RATIO)!=0) {
+                writeFloat(state.getSplitRatio());
+            }
+            if((flags & STATE_FLOATING)!=0) {
+                writeString(state.getFloatingGroup());
+            } else if((flags & STATE_MINIMIZED)!=0) {
+                writeSignedVarInt(state.getMinimizedConstraint());
+            }
+            if((flags & STATE_CENTER)!=0) {
+                writeSignedVarInt(state.getCenterX());
+                writeSignedVarInt(state.getCenterY());
+            }
+            if(path!=null) {
+                writeString(path.getRootPortId());
+                writeString(isEmpty(path.getSiblingId())? null: path.getSiblingId());
+                List nodes = path.getNodes();
+                writeVarInt(nodes.size());
+                for(Iterator it=nodes.iterator(); it.hasNext();) {
+                    writeLayoutNode((LayoutNode)it.next());
+                }
+            }
+        }
+
+        private void writeFloatingGroup(FloatingGroup group) throws IOException {
+            writeString(group.getName());
+            Rectangle bounds = group.getBounds();
+            writeSignedVarInt(bounds.x);
+            writeSignedVarInt(bounds.y);
+            writeSignedVarInt(bounds.width);
+            writeSignedVarInt(bounds.height);
+            writeVarInt(group.getDockableCount());
+            for(Iterator it=group.getDockableIterator(); it.hasNext();) {
+                writeString((String)it.next());
+            }
+        }
+
+        private void writeLayoutNode(LayoutNode node) throws IOException {
+            if(node instanceof SplitNode) {
+                SplitNode split = (SplitNode)node;
+                writeVarInt(NODE_SPLIT);
+                writeString(isEmpty(split.getSiblingId())? null: split.getSiblingId());
+                // store the same normalized values the XML descriptions carry
+                writeString(split.getOrientationDesc());
+                writeString(split.getRegionDesc());
+                writeFloat(split.getPercentage());
+                writeString(normalizeRegion(split.getDockingRegion()));
+            } else if(node instanceof DockingPortNode) {
+                writeVarInt(NODE_DOCKING_PORT);
+            } else if(node instanceof DockableNode) {
+                writeVarInt(NODE_DOCKABLE);
+                writeString(((DockableNode)node).getDockableId());
+            } else {
+                throw new IOException("Incorrect element: " + node);
+            }
+
+            int childCount = node.getChildCount();
+            writeVarInt(childCount);
+            for(int i=0; i<childCount; i++) {
+                writeLayoutNode((LayoutNode)node.getChildAt(i));
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            if(value==null) {
+                writeVarInt(STRING_NULL);
+                return;
+            }
+            Integer index = (Integer)strings.get(value);
+            if(index!=null) {
+                writeVarInt(STRING_REF + index.intValue());
+                return;
+            }
+            strings.put(value, new Integer(strings.size()));
+            byte[] bytes = value.getBytes("UTF-8");
+            writeVarInt(STRING_NEW);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeFloat(float value) throws IOException {
+            int bits = Float.floatToIntBits(value);
+            out.write(bits >>> 24);
+            out.write(bits >>> 16);
+            out.write(bits >>> 8);
+            out.write(bits);
+        }
+
+        private void writeSignedVarInt(int value) throws IOException {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while((value & ~0x7F)!=0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+    }
+
+    private static class Decoder {
+        private final InputStream in;
+        private final ArrayList strings = new ArrayList();
+
+        private Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        private PerspectiveModel readPerspectiveModel() throws IOException {
+            String current = readString();
+            String defaultId = readString();
+
+            Perspective[] perspectives = new Perspective[readVarInt()];
+            for(int i=0; i<perspectives.length; i++) {
+                perspectives[i] = readPerspective();
+            }
+            return new PerspectiveModel(defaultId, current, perspectives);
+        }
+
+        private Perspective readPerspective() throws IOException {
+            String id = readString();
+            String name = readString();
+            Perspective perspective = new Perspective(id, name);
+            perspective.setLayout(readLayout());
+
+            int sequenceSize = readVarInt();
+            if(sequenceSize>0) {
+                LayoutSequence sequence = new LayoutSequence();
+                for(int i=1; i<sequenceSize; i++) {
+                    sequence.add(readDockingState());
+                }
+                perspective.setInitialSequence(sequence);
+            }
+            return perspective;
+        }
+
+        private Layout readLayout() throws IOException {
+            Layout layout = new Layout();
+            int count = readVarInt();
+            for(int i=0; i<count; i++) {
+                DockingState state = readDockingState();
+                layout.setDockingState(state.getDockableId(), state);
+            }
+
+            count = readVarInt();
+            for(int i=0; i<count; i++) {
+                layout.addFloatingGroup(readFloatingGroup());
+            }
+
+            LayoutNode restoration = readLayoutNode();
+            // XMLPersister only restores a DockingPortNode root
+            if(restoration instanceof DockingPortNode) {
+                layout.setRestorationLayout(restoration);
+            }
+            return layout;
+        }
+
+        private DockingState readDockingState() throws IOException {
+            int flags = readVarInt();
+            DockingState state = new DockingState(readString());
+            String parentId = readString();
+            if(parentId!=null) {
+                state.setRelativeParentId(parentId);
+            }
+            String region = readString();
+            state.setRegion(region==null? "": denormalizeRegion(region));
+            if((flags & STATE_SPLIT_RATIO)!=0) {
+                state.setSplitRatio(readFloat());
+            }
+            if((flags & STATE_FLOATING)!=0) {
+                String group = readString();
+                if(!isEmpty(group)) {
+                    state.setFloatingGroup(group);
+                }
+            } else if((flags & STATE_MINIMIZED)!=0) {
+                state.setMinimizedConstraint(readSignedVarInt());
+            }
+            if((flags & STATE_CENTER)!=0) {
+                int x = readSignedVarInt();
+                int y = readSignedVarInt();
+                state.setCenter(new Point(x, y));
+            }
+            if((flags & STATE_PATH)!=0) {
+                DockingPath path = new DockingPath();
+                path.setRootPortId(readString());
+                String siblingId = readString();
+                if(siblingId!=null) {
+                    path.setSiblingId(siblingId);
+                }
+                path.setTabbed((flags & STATE_TABBED)!=0);
+                int count = readVarInt();
+                for(int i=0; i<count; i++) {
+                    path.getNodes().add(readLayoutNode());
+                }
+                state.setPath(path);
+            }
+            return state;
+        }
+
+        private FloatingGroup readFloatingGroup() throws IOException {
+            FloatingGroup group = new FloatingGroup(readString());
+            int x = readSignedVarInt();
+            int y = readSignedVarInt();
+            int width = readSignedVarInt();
+            int height = readSignedVarInt();
+            group.setBounds(new Rectangle(x, y, width, height));
+            int count = readVarInt();
+            for(int i=0; i<count; i++) {
+                group.addDockable(readString());
+            }
+            return group;
+        }
+
+        private LayoutNode readLayoutNode() throws IOException {
+            int type = readVarInt();
+            LayoutNode node;
+            switch(type) {
+                case 0:
+                    return null;
+                case NODE_DOCKING_PORT:
+                    node = new DockingPortNode();
+                    break;
+                case NODE_DOCKABLE:
+                    DockableNode dockableNode = new DockableNode();
+                    dockableNode.setDockableId(readString());
+                    node = dockableNode;
+                    break;
+                case NODE_SPLIT:
+                    node = readSplitNode();
+                    break;
+                default:
+                    throw new IOException("Unknown layout node type: " + type);
+            }
+
+            int childCount = readVarInt();
+            for(int i=0; i<childCount; i++) {
+                node.add(readLayoutNode());
+            }
+            return node;
+        }
+
+        private SplitNode readSplitNode() throws IOException {
+            String siblingId = readString();
+            String orientation = readString();
+            String region = readString();
+            float percentage = readFloat();
+            String dockingRegion = readString();
+
+            int regionValue = DockingConstants.LEFT;
+            if("top".equals(region)) {
+                regionValue = DockingConstants.TOP;
+            } else if("bottom".equals(region)) {
+                regionValue = DockingConstants.BOTTOM;
+            } else if("right".equals(region)) {
+                regionValue = DockingConstants.RIGHT;
+            }
+            int orientationValue = "vertical".equals(orientation)? DockingConstants.VERTICAL: DockingConstants.HORIZONTAL;
+
+            SplitNode node = new SplitNode(orientationValue, regionValue, percentage, siblingId);
+            node.setDockingRegion(denormalizeRegion(dockingRegion));
+            return node;
+        }
+
+        private String readString() throws IOException {
+            int code = readVarInt();
+            if(code==STRING_NULL) {
+                return null;
+            }
+            if(code==STRING_NEW) {
+                byte[] bytes = new byte[readVarInt()];
+                readFully(bytes);
+                String value = new String(bytes, "UTF-8");
+                strings.add(value);
+                return value;
+            }
+            int index = code - STRING_REF;
+            if(index>=strings.size()) {
+                throw new IOException("Invalid string reference: " + index);
+            }
+            return (String)strings.get(index);
+        }
+
+        private float readFloat() throws IOException {
+            int bits = (read() << 24) | (read() << 16) | (read() << 8) | read();
+            return Float.intBitsToFloat(bits);
+        }
+
+        private int readSignedVarInt() throws IOException {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for(int shift=0; shift<35; shift+=7) {
+                int b = read();
+                value |= (b & 0x7F) << shift;
+                if((b & 0x80)==0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        private void readFully(byte[] bytes) throws IOException {
+            int offset = 0;
+            while(offset<bytes.length) {
+                int count = in.read(bytes, offset, bytes.length-offset);
+                if(count<0) {
+                    throw new EOFException();
+                }
+                offset += count;
+            }
+        }
+
+        private int read() throws IOException {
+            int b = in.read();
+            if(b<0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+    }
+
+}
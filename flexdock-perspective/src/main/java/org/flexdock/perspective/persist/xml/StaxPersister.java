@@ -0,0 +1,682 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.perspective.persist.xml;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.tree.MutableTreeNode;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.state.DockingPath;
+import org.flexdock.docking.state.DockingState;
+import org.flexdock.docking.state.FloatingGroup;
+import org.flexdock.docking.state.LayoutNode;
+import org.flexdock.docking.state.MinimizationManager;
+import org.flexdock.docking.state.PersistenceException;
+import org.flexdock.docking.state.tree.DockableNode;
+import org.flexdock.docking.state.tree.DockingPortNode;
+import org.flexdock.docking.state.tree.SplitNode;
+import org.flexdock.perspective.Layout;
+import org.flexdock.perspective.LayoutSequence;
+import org.flexdock.perspective.Perspective;
+import org.flexdock.perspective.persist.Persister;
+import org.flexdock.perspective.persist.PerspectiveModel;
+
+/**
+ * A <code>Persister</code> that reads and writes the same XML schema as
+ * {@link XMLPersister}, but streams the document through StAX instead of
+ * building a DOM tree first.  Files written by either persister can be read
+ * by the other.
+ */
+public class StaxPersister implements Persister {
+
+    private static final String ENCODING = "UTF-8";
+    private static final String INDENT = "    ";
+
+    private static final String OPENED_STATE = "opened";
+    private static final String MINIMIZED_STATE = "minimized";
+    private static final String FLOATING_STATE = "floating";
+
+    private final XMLOutputFactory outputFactory;
+    private final XMLInputFactory inputFactory;
+
+    public StaxPersister() {
+        outputFactory = XMLOutputFactory.newInstance();
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean store(OutputStream os, PerspectiveModel perspectiveModel) throws IOException, PersistenceException {
+        try {
+            XMLStreamWriter writer = outputFactory.createXMLStreamWriter(os, ENCODING);
+            try {
+                Output out = new Output(writer);
+                writer.writeStartDocument(ENCODING, "1.0");
+                writePerspectiveModel(out, perspectiveModel);
+                writer.writeCharacters("\n");
+                writer.writeEndDocument();
+                writer.flush();
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new PersistenceException("Unable to serialize perspectiveModel", ex);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PerspectiveModel load(InputStream is) throws IOException, PersistenceException {
+        try {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(is);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && PersistenceConstants.PERSPECTIVE_MODEL_ELEMENT_NAME.equals(reader.getLocalName())) {
+                        return readPerspectiveModel(reader);
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new PersistenceException("Unable to deserialize perspectiveModel from xml", ex);
+        }
+    }
+
+    public static StaxPersister newDefaultInstance() {
+        return new StaxPersister();
+    }
+
+    /*
+     * ---------------------------------------------------------------------
+     * writing
+     * ---------------------------------------------------------------------
+     */
+
+    private void writePerspectiveModel(Output out, PerspectiveModel perspectiveModel) throws XMLStreamException {
+        out.start(PersistenceConstants.PERSPECTIVE_MODEL_ELEMENT_NAME);
+        out.attribute(PersistenceConstants.PERSPECTIVE_MODEL_ATTRIBUTE_CURRENT_PERSPECTIVE_ID, perspectiveModel.getCurrentPerspective());
+        out.attribute(PersistenceConstants.PERSPECTIVE_MODEL_ATTRIBUTE_DEFAULT_PERSPECTIVE_ID, perspectiveModel.getDefaultPerspective());
+
+        Perspective[] perspectives = perspectiveModel.getPerspectives();
+        for (int i = 0; i < perspectives.length; i++) {
+            writePerspective(out, perspectives[i]);
+        }
+        out.end();
+    }
+
+    private void writePerspective(Output out, Perspective perspective) throws XMLStreamException {
+        out.start(PersistenceConstants.PERSPECTIVE_ELEMENT_NAME);
+        out.attribute(PersistenceConstants.PERSPECTIVE_ATTRIBUTE_ID, perspective.getPersistentId());
+        out.attribute(PersistenceConstants.PERSPECTIVE_ATTRIBUTE_NAME, perspective.getName());
+
+        writeLayout(out, perspective.getLayout());
+        if (perspective.getInitialSequence() != null) {
+            writeLayoutSequence(out, perspective.getInitialSequence());
+        }
+        out.end();
+    }
+
+    private void writeLayout(Output out, Layout layout) throws XMLStreamException {
+        out.start(PersistenceConstants.LAYOUT_ELEMENT_NAME);
+
+        Dockable[] dockables = layout.getDockables();
+        for (int i = 0; i < dockables.length; i++) {
+            writeDockingState(out, layout.getDockingState(dockables[i]));
+        }
+
+        String[] floatingGroupIds = layout.getFloatingGroupIds();
+        for (int i = 0; i < floatingGroupIds.length; i++) {
+            writeFloatingGroup(out, layout.getGroup(floatingGroupIds[i]));
+        }
+
+        LayoutNode layoutNode = layout.getRestorationLayout();
+        if (layoutNode != null) {
+            writeLayoutNode(out, layoutNode);
+        }
+        out.end();
+    }
+
+    private void writeLayoutSequence(Output out, LayoutSequence layoutSequence) throws XMLStreamException {
+        out.start(PersistenceConstants.LAYOUT_SEQUENCE_ELEMENT_NAME);
+        List dockingStates = layoutSequence.getDockingStates();
+        for (Iterator it = dockingStates.iterator(); it.hasNext();) {
+            writeDockingState(out, (DockingState) it.next());
+        }
+        out.end();
+    }
+
+    private void writeDockingState(Output out, DockingState dockingState) throws XMLStreamException {
+        boolean leaf = !dockingState.hasCenterPoint() && !dockingState.hasDockingPath();
+        out.start(PersistenceConstants.DOCKING_STATE_ELEMENT_NAME, leaf);
+        out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_DOCKABLE_ID, dockingState.getDockableId());
+        if (!isEmpty(dockingState.getRelativeParentId())) {
+            out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_RELATIVE_PARENT_ID, dockingState.getRelativeParentId());
+        }
+        out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_REGION, dockingState.getRegion().toLowerCase());
+
+        if (dockingState.getSplitRatio() != DockingConstants.UNINITIALIZED_RATIO) {
+            out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_SPLIT_RATIO, String.valueOf(dockingState.getSplitRatio()));
+        }
+
+        if (dockingState.isMinimized()) {
+            out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_STATE, MINIMIZED_STATE);
+        } else if (dockingState.isFloating()) {
+            out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_STATE, FLOATING_STATE);
+        } else {
+            out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_STATE, OPENED_STATE);
+        }
+
+        if (dockingState.isFloating()) {
+            out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_FLOATING_GROUP_NAME, dockingState.getFloatingGroup());
+        } else if (dockingState.isMinimized()) {
+            out.attribute(PersistenceConstants.DOCKING_STATE_ATTRIBUTE_MINIMIZE_CONSTRAINT,
+                          getPresentationMinimizeConstraint(dockingState.getMinimizedConstraint()));
+        }
+
+        if (dockingState.hasCenterPoint()) {
+            writePoint(out, dockingState.getCenterPoint());
+        }
+        if (dockingState.hasDockingPath()) {
+            writeDockingPath(out, dockingState.getPath());
+        }
+        out.end();
+    }
+
+    private void writeDockingPath(Output out, DockingPath dockingPath) throws XMLStreamException {
+        List splitNodes = dockingPath.getNodes();
+        out.start(PersistenceConstants.DOCKING_PATH_ELEMENT_NAME, splitNodes.isEmpty());
+        out.attribute(PersistenceConstants.DOCKING_PATH_ATTRIBUTE_ROOT_PORT_ID, dockingPath.getRootPortId());
+        if (!isEmpty(dockingPath.getSiblingId())) {
+            out.attribute(PersistenceConstants.DOCKING_PATH_ATTRIBUTE_SIBLING_ID, dockingPath.getSiblingId());
+        }
+        if (dockingPath.isTabbed()) {
+            out.attribute(PersistenceConstants.DOCKING_PATH_ATTRIBUTE_IS_TABBED, String.valueOf(dockingPath.isTabbed()));
+        }
+
+        for (Iterator it = splitNodes.iterator(); it.hasNext();) {
+            writeLayoutNode(out, (SplitNode) it.next());
+        }
+        out.end();
+    }
+
+    private void writeFloatingGroup(Output out, FloatingGroup floatingGroup) throws XMLStreamException {
+        out.start(PersistenceConstants.FLOATING_GROUP_ELEMENT_NAME);
+        out.attribute(PersistenceConstants.FLOATING_GROUP_ATTRIBUTE_NAME, floatingGroup.getName());
+
+        Rectangle bounds = floatingGroup.getBounds();
+        out.start(PersistenceConstants.RECTANGLE_ELEMENT_NAME);
+        writePoint(out, bounds.getLocation());
+        out.start(PersistenceConstants.DIMENSION_ELEMENT_NAME, true);
+        out.attribute(PersistenceConstants.DIMENSION_ATTRIBUTE_WIDTH, String.valueOf(bounds.width));
+        out.attribute(PersistenceConstants.DIMENSION_ATTRIBUTE_HEIGHT, String.valueOf(bounds.height));
+        out.end();
+        out.end();
+
+        for (Iterator it = floatingGroup.getDockableIterator(); it.hasNext();) {
+            out.start(PersistenceConstants.DOCKABLE_ELEMENT_NAME, true);
+            out.attribute(PersistenceConstants.DOCKABLE_ATTRIBUTE_ID, (String) it.next());
+            out.end();
+        }
+        out.end();
+    }
+
+    private void writePoint(Output out, Point point) throws XMLStreamException {
+        out.start(PersistenceConstants.POINT_ELEMENT_NAME, true);
+        out.attribute(PersistenceConstants.POINT_ATTRIBUTE_X, String.valueOf(point.x));
+        out.attribute(PersistenceConstants.POINT_ATTRIBUTE_Y, String.valueOf(point.y));
+        out.end();
+    }
+
+    private void writeLayoutNode(Output out, LayoutNode layoutNode) throws XMLStreamException {
+        int childCount = layoutNode.getChildCount();
+        if (layoutNode instanceof SplitNode) {
+            SplitNode splitNode = (SplitNode) layoutNode;
+            out.start(PersistenceConstants.SPLIT_NODE_ELEMENT_NAME, childCount == 0);
+            if (!isEmpty(splitNode.getSiblingId())) {
+                out.attribute(PersistenceConstants.SPLIT_NODE_ATTRIBUTE_SIBLING_ID, splitNode.getSiblingId());
+            }
+            out.attribute(PersistenceConstants.SPLIT_NODE_ATTRIBUTE_ORIENTATION, splitNode.getOrientationDesc());
+            out.attribute(PersistenceConstants.SPLIT_NODE_ATTRIBUTE_REGION, splitNode.getRegionDesc());
+            out.attribute(PersistenceConstants.SPLIT_NODE_ATTRIBUTE_PERCENTAGE, String.valueOf(splitNode.getPercentage()));
+            if (splitNode.getDockingRegion() != null) {
+                out.attribute(PersistenceConstants.SPLIT_NODE_ATTRIBUTE_DOCKING_REGION, splitNode.getDockingRegion().toLowerCase());
+            }
+        } else if (layoutNode instanceof DockingPortNode) {
+            out.start(PersistenceConstants.DOCKING_PORT_NODE_ELEMENT_NAME, childCount == 0);
+        } else if (layoutNode instanceof DockableNode) {
+            out.start(PersistenceConstants.DOCKABLE_NODE_ELEMENT_NAME, childCount == 0);
+            out.attribute(PersistenceConstants.DOCKABLE_NODE_ATTRIBUTE_DOCKABLE_ID, ((DockableNode) layoutNode).getDockableId());
+        } else {
+            throw new XMLStreamException("Incorrect element: " + layoutNode);
+        }
+
+        for (int i = 0; i < childCount; i++) {
+            MutableTreeNode child = (MutableTreeNode) layoutNode.getChildAt(i);
+            writeLayoutNode(out, (LayoutNode) child);
+        }
+        out.end();
+    }
+
+    private String getPresentationMinimizeConstraint(int constraint) throws XMLStreamException {
+        switch (constraint) {
+            case MinimizationManager.LEFT:
+                return "left";
+            case MinimizationManager.BOTTOM:
+                return "bottom";
+            case MinimizationManager.CENTER:
+                return "center";
+            case MinimizationManager.RIGHT:
+                return "right";
+            case MinimizationManager.TOP:
+                return "top";
+            case MinimizationManager.UNSPECIFIED_LAYOUT_CONSTRAINT:
+                return "unspecified";
+            default:
+                throw new XMLStreamException("Unknown dockbarEdge");
+        }
+    }
+
+    /*
+     * ---------------------------------------------------------------------
+     * reading
+     * ---------------------------------------------------------------------
+     */
+
+    private PerspectiveModel readPerspectiveModel(XMLStreamReader reader) throws XMLStreamException {
+        String currentPerspectiveId = getAttribute(reader, PersistenceConstants.PERSPECTIVE_MODEL_ATTRIBUTE_CURRENT_PERSPECTIVE_ID);
+        String defaultPerspectiveId = getAttribute(reader, PersistenceConstants.PERSPECTIVE_MODEL_ATTRIBUTE_DEFAULT_PERSPECTIVE_ID);
+
+        ArrayList perspectives = new ArrayList();
+        while (nextChild(reader)) {
+            if (PersistenceConstants.PERSPECTIVE_ELEMENT_NAME.equals(reader.getLocalName())) {
+                perspectives.add(readPerspective(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        Perspective[] perspectivesArray = (Perspective[]) perspectives.toArray(new Perspective[perspectives.size()]);
+        return new PerspectiveModel(defaultPerspectiveId, currentPerspectiveId, perspectivesArray);
+    }
+
+    private Perspective readPerspective(XMLStreamReader reader) throws XMLStreamException {
+        String perspectiveId = getAttribute(reader, PersistenceConstants.PERSPECTIVE_ATTRIBUTE_ID);
+        String perspectiveName = getAttribute(reader, PersistenceConstants.PERSPECTIVE_ATTRIBUTE_NAME);
+
+        Perspective perspective = new Perspective(perspectiveId, perspectiveName);
+        boolean layoutRead = false;
+        boolean sequenceRead = false;
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if (!layoutRead && PersistenceConstants.LAYOUT_ELEMENT_NAME.equals(name)) {
+                perspective.setLayout(readLayout(reader));
+                layoutRead = true;
+            } else if (!sequenceRead && PersistenceConstants.LAYOUT_SEQUENCE_ELEMENT_NAME.equals(name)) {
+                perspective.setInitialSequence(readLayoutSequence(reader));
+                sequenceRead = true;
+            } else {
+                skipElement(reader);
+            }
+        }
+        return perspective;
+    }
+
+    private Layout readLayout(XMLStreamReader reader) throws XMLStreamException {
+        Layout layout = new Layout();
+        boolean restorationRead = false;
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if (PersistenceConstants.DOCKING_STATE_ELEMENT_NAME.equals(name)) {
+                DockingState dockingState = readDockingState(reader);
+                layout.setDockingState(dockingState.getDockableId(), dockingState);
+            } else if (PersistenceConstants.FLOATING_GROUP_ELEMENT_NAME.equals(name)) {
+                layout.addFloatingGroup(readFloatingGroup(reader));
+            } else if (!restorationRead && PersistenceConstants.DOCKING_PORT_NODE_ELEMENT_NAME.equals(name)) {
+                layout.setRestorationLayout(readLayoutNode(reader));
+                restorationRead = true;
+            } else {
+                skipElement(reader);
+            }
+        }
+        return layout;
+    }
+
+    private LayoutSequence readLayoutSequence(XMLStreamReader reader) throws XMLStreamException {
+        LayoutSequence layoutSequence = new LayoutSequence();
+        while (nextChild(reader)) {
+            if (PersistenceConstants.DOCKING_STATE_ELEMENT_NAME.equals(reader.getLocalName())) {
+                layoutSequence.add(readDockingState(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return layoutSequence;
+    }
+
+    private DockingState readDockingState(XMLStreamReader reader) throws XMLStreamException {
+        String dockableId = getAttribute(reader, PersistenceConstants.DOCKING_STATE_ATTRIBUTE_DOCKABLE_ID);
+        String relativeParentId = getAttribute(reader, PersistenceConstants.DOCKING_STATE_ATTRIBUTE_RELATIVE_PARENT_ID);
+        String region = getAttribute(reader, PersistenceConstants.DOCKING_STATE_ATTRIBUTE_REGION);
+        String splitRatio = getAttribute(reader, PersistenceConstants.DOCKING_STATE_ATTRIBUTE_SPLIT_RATIO);
+        String state = getAttribute(reader, PersistenceConstants.DOCKING_STATE_ATTRIBUTE_STATE);
+
+        DockingState dockingState = new DockingState(dockableId);
+        if (!isEmpty(relativeParentId)) {
+            dockingState.setRelativeParentId(relativeParentId);
+        }
+        dockingState.setRegion(region.toUpperCase());
+        if (!isEmpty(splitRatio)) {
+            dockingState.setSplitRatio(Float.parseFloat(splitRatio));
+        }
+
+        if (state.equals(FLOATING_STATE)) {
+            String floatingGroupName = getAttribute(reader, PersistenceConstants.DOCKING_STATE_ATTRIBUTE_FLOATING_GROUP_NAME);
+            if (!isEmpty(floatingGroupName)) {
+                dockingState.setFloatingGroup(floatingGroupName);
+            }
+        } else if (state.equals(MINIMIZED_STATE)) {
+            String minimizeConstraint = getAttribute(reader, PersistenceConstants.DOCKING_STATE_ATTRIBUTE_MINIMIZE_CONSTRAINT);
+            dockingState.setMinimizedConstraint(getRealMinimizeConstraint(minimizeConstraint));
+        }
+
+        boolean pointRead = false;
+        boolean pathRead = false;
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if (!pointRead && PersistenceConstants.POINT_ELEMENT_NAME.equals(name)) {
+                dockingState.setCenter(readPoint(reader));
+                pointRead = true;
+            } else if (!pathRead && PersistenceConstants.DOCKING_PATH_ELEMENT_NAME.equals(name)) {
+                dockingState.setPath(readDockingPath(reader));
+                pathRead = true;
+            } else {
+                skipElement(reader);
+            }
+        }
+        return dockingState;
+    }
+
+    private DockingPath readDockingPath(XMLStreamReader reader) throws XMLStreamException {
+        DockingPath dockingPath = new DockingPath();
+
+        String siblingId = getAttribute(reader, PersistenceConstants.DOCKING_PATH_ATTRIBUTE_SIBLING_ID);
+        String isTabbed = getAttribute(reader, PersistenceConstants.DOCKING_PATH_ATTRIBUTE_IS_TABBED);
+
+        dockingPath.setRootPortId(getAttribute(reader, PersistenceConstants.DOCKING_PATH_ATTRIBUTE_ROOT_PORT_ID));
+        if (!isEmpty(siblingId)) {
+            dockingPath.setSiblingId(siblingId);
+        }
+        dockingPath.setTabbed(!isEmpty(isTabbed) && Boolean.valueOf(isTabbed).booleanValue());
+
+        while (nextChild(reader)) {
+            if (PersistenceConstants.SPLIT_NODE_ELEMENT_NAME.equals(reader.getLocalName())) {
+                dockingPath.getNodes().add(readLayoutNode(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return dockingPath;
+    }
+
+    private FloatingGroup readFloatingGroup(XMLStreamReader reader) throws XMLStreamException {
+        FloatingGroup floatingGroup = new FloatingGroup(getAttribute(reader, PersistenceConstants.FLOATING_GROUP_ATTRIBUTE_NAME));
+        boolean boundsRead = false;
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if (!boundsRead && PersistenceConstants.RECTANGLE_ELEMENT_NAME.equals(name)) {
+                floatingGroup.setBounds(readRectangle(reader));
+                boundsRead = true;
+            } else if (PersistenceConstants.DOCKABLE_ELEMENT_NAME.equals(name)) {
+                floatingGroup.addDockable(getAttribute(reader, PersistenceConstants.DOCKABLE_ATTRIBUTE_ID));
+                skipElement(reader);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return floatingGroup;
+    }
+
+    private Rectangle readRectangle(XMLStreamReader reader) throws XMLStreamException {
+        Rectangle rectangle = new Rectangle();
+        while (nextChild(reader)) {
+            String name = reader.getLocalName();
+            if (PersistenceConstants.POINT_ELEMENT_NAME.equals(name)) {
+                rectangle.setLocation(readPoint(reader));
+            } else if (PersistenceConstants.DIMENSION_ELEMENT_NAME.equals(name)) {
+                String width = getAttribute(reader, PersistenceConstants.DIMENSION_ATTRIBUTE_WIDTH);
+                String height = getAttribute(reader, PersistenceConstants.DIMENSION_ATTRIBUTE_HEIGHT);
+                rectangle.setSize(Integer.parseInt(width), Integer.parseInt(height));
+                skipElement(reader);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return rectangle;
+    }
+
+    private Point readPoint(XMLStreamReader reader) throws XMLStreamException {
+        String x = getAttribute(reader, PersistenceConstants.POINT_ATTRIBUTE_X);
+        String y = getAttribute(reader, PersistenceConstants.POINT_ATTRIBUTE_Y);
+        skipElement(reader);
+        return new Point(Integer.parseInt(x), Integer.parseInt(y));
+    }
+
+    private LayoutNode readLayoutNode(XMLStreamReader reader) throws XMLStreamException {
+        String name = reader.getLocalName();
+        LayoutNode layoutNode;
+        if (PersistenceConstants.DOCKING_PORT_NODE_ELEMENT_NAME.equals(name)) {
+            layoutNode = new DockingPortNode();
+        } else if (PersistenceConstants.SPLIT_NODE_ELEMENT_NAME.equals(name)) {
+            layoutNode = readSplitNode(reader);
+        } else if (PersistenceConstants.DOCKABLE_NODE_ELEMENT_NAME.equals(name)) {
+            DockableNode dockableNode = new DockableNode();
+            dockableNode.setDockableId(getAttribute(reader, PersistenceConstants.DOCKABLE_NODE_ATTRIBUTE_DOCKABLE_ID));
+            layoutNode = dockableNode;
+        } else {
+            throw new XMLStreamException("Incorrect element: " + name, reader.getLocation());
+        }
+
+        while (nextChild(reader)) {
+            layoutNode.add(readLayoutNode(reader));
+        }
+        return layoutNode;
+    }
+
+    private SplitNode readSplitNode(XMLStreamReader reader) {
+        String siblingId = getAttribute(reader, PersistenceConstants.SPLIT_NODE_ATTRIBUTE_SIBLING_ID);
+        String orientationString = getAttribute(reader, PersistenceConstants.SPLIT_NODE_ATTRIBUTE_ORIENTATION);
+        String regionString = getAttribute(reader, PersistenceConstants.SPLIT_NODE_ATTRIBUTE_REGION);
+        String percentage = getAttribute(reader, PersistenceConstants.SPLIT_NODE_ATTRIBUTE_PERCENTAGE);
+        String dockingRegion = getAttribute(reader, PersistenceConstants.SPLIT_NODE_ATTRIBUTE_DOCKING_REGION);
+
+        int orientation = DockingConstants.UNINITIALIZED;
+        if (orientationString.equals("vertical")) {
+            orientation = DockingConstants.VERTICAL;
+        } else if (orientationString.equals("horizontal")) {
+            orientation = DockingConstants.HORIZONTAL;
+        }
+
+        int region = DockingConstants.UNINITIALIZED;
+        if (regionString.equals("top")) {
+            region = DockingConstants.TOP;
+        } else if (regionString.equals("bottom")) {
+            region = DockingConstants.BOTTOM;
+        } else if (regionString.equals("left")) {
+            region = DockingConstants.LEFT;
+        } else if (regionString.equals("right")) {
+            region = DockingConstants.RIGHT;
+        }
+
+        SplitNode splitNode = new SplitNode(orientation, region, Float.parseFloat(percentage), null);
+        if (!isEmpty(siblingId)) {
+            splitNode.setSiblingId(siblingId);
+        }
+        if (!isEmpty(dockingRegion)) {
+            splitNode.setDockingRegion(dockingRegion.toUpperCase());
+        }
+        return splitNode;
+    }
+
+    private int getRealMinimizeConstraint(String presConstraint) throws XMLStreamException {
+        if (presConstraint.equals("left")) {
+            return MinimizationManager.LEFT;
+        } else if (presConstraint.equals("bottom")) {
+            return MinimizationManager.BOTTOM;
+        } else if (presConstraint.equals("center")) {
+            return MinimizationManager.CENTER;
+        } else if (presConstraint.equals("right")) {
+            return MinimizationManager.RIGHT;
+        } else if (presConstraint.equals("top")) {
+            return MinimizationManager.TOP;
+        }
+
+        throw new XMLStreamException("Minimization conversion error!");
+    }
+
+    /**
+     * Advances to the next child element of the current element.  Returns
+     * <code>false</code> once the end tag of the current element is reached.
+     */
+    private static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the rest of the current element, including its children.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Mirrors <code>Element.getAttribute()</code>, which returns an empty
+     * string for missing attributes.
+     */
+    private static String getAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? "" : value;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.length() == 0;
+    }
+
+    /**
+     * Wraps an <code>XMLStreamWriter</code> and indents nested elements the
+     * same way <code>XMLPersister</code> does.
+     */
+    private static class Output {
+        private final XMLStreamWriter writer;
+        private final BitSet hasChildren = new BitSet();
+        private final BitSet empty = new BitSet();
+        private int depth;
+
+        private Output(XMLStreamWriter writer) {
+            this.writer = writer;
+        }
+
+        private void start(String name) throws XMLStreamException {
+            start(name, false);
+        }
+
+        private void start(String name, boolean emptyElement) throws XMLStreamException {
+            hasChildren.set(depth);
+            indent();
+            if (emptyElement) {
+                writer.writeEmptyElement(name);
+            } else {
+                writer.writeStartElement(name);
+            }
+            depth++;
+            hasChildren.clear(depth);
+            empty.set(depth, emptyElement);
+        }
+
+        private void attribute(String name, String value) throws XMLStreamException {
+            if (value != null) {
+                writer.writeAttribute(name, value);
+            }
+        }
+
+        private void end() throws XMLStreamException {
+            boolean emptyElement = empty.get(depth);
+            boolean children = hasChildren.get(depth);
+            depth--;
+            if (emptyElement) {
+                return;
+            }
+            if (children) {
+                indent();
+            }
+            writer.writeEndElement();
+        }
+
+        private void indent() throws XMLStreamException {
+            writer.writeCharacters("\n");
+            for (int i = 0; i < depth; i++) {
+                writer.writeCharacters(INDENT);
+            }
+        }
+    }
+
+}
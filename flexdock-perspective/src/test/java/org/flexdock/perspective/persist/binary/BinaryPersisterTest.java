@@ -0,0 +1,231 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.perspective.persist.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import javax.swing.JPanel;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.DockingManager;
+import org.flexdock.docking.defaults.DockableComponentWrapper;
+import org.flexdock.docking.state.DockingPath;
+import org.flexdock.docking.state.DockingState;
+import org.flexdock.docking.state.FloatingGroup;
+import org.flexdock.docking.state.MinimizationManager;
+import org.flexdock.docking.state.tree.DockableNode;
+import org.flexdock.docking.state.tree.DockingPortNode;
+import org.flexdock.docking.state.tree.SplitNode;
+import org.flexdock.perspective.Layout;
+import org.flexdock.perspective.LayoutSequence;
+import org.flexdock.perspective.Perspective;
+import org.flexdock.perspective.persist.PersistenceConverter;
+import org.flexdock.perspective.persist.Persister;
+import org.flexdock.perspective.persist.PerspectiveModel;
+import org.flexdock.perspective.persist.xml.XMLPersister;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks that a model stored with the {@code BinaryPersister} and loaded back
+ * serializes to exactly the XML the original model does.  The generated model
+ * mixes docked, floating and minimized dockables, and gives the docked ones
+ * paths several splits deep.
+ */
+public class BinaryPersisterTest implements DockingConstants {
+    private static final String PREFIX = "binary.persister";
+    private static final int DOCKABLES = 24;
+
+    private static Dockable[] dockables;
+
+    @BeforeClass
+    public static void registerDockables() {
+        // only registered dockables are written out by either persister
+        dockables = new Dockable[DOCKABLES];
+        for(int i=0; i<DOCKABLES; i++) {
+            JPanel panel = new JPanel();
+            String id = getDockableId(i);
+            dockables[i] = DockingManager.registerDockable(DockableComponentWrapper.create(panel, id, id));
+        }
+    }
+
+    @AfterClass
+    public static void unregisterDockables() {
+        for(int i=0; i<DOCKABLES; i++) {
+            DockingManager.unregisterDockable(dockables[i]);
+        }
+    }
+
+    @Test
+    public void roundTripMatchesXml() throws Exception {
+        PerspectiveModel model = createPerspectiveModel(3);
+        String expected = toXml(model);
+
+        byte[] binary = store(BinaryPersister.newDefaultInstance(), model);
+        assertTrue(BinaryPersister.isBinaryFormat(binary));
+        PerspectiveModel loaded = BinaryPersister.newDefaultInstance().load(new ByteArrayInputStream(binary));
+
+        assertEquals(expected, toXml(loaded));
+    }
+
+    @Test
+    public void converterMatchesXml() throws Exception {
+        PerspectiveModel model = createPerspectiveModel(2);
+        byte[] xml = store(XMLPersister.newDefaultInstance(), model);
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        assertTrue(PersistenceConverter.convert(new ByteArrayInputStream(xml), XMLPersister.newDefaultInstance(),
+                                                binary, BinaryPersister.newDefaultInstance()));
+        ByteArrayOutputStream back = new ByteArrayOutputStream();
+        assertTrue(PersistenceConverter.convert(new ByteArrayInputStream(binary.toByteArray()), BinaryPersister.newDefaultInstance(),
+                                                back, XMLPersister.newDefaultInstance()));
+
+        assertEquals(new String(xml, "UTF-8"), back.toString("UTF-8"));
+    }
+
+    private static PerspectiveModel createPerspectiveModel(int count) {
+        Perspective[] perspectives = new Perspective[count];
+        for(int i=0; i<count; i++) {
+            perspectives[i] = new Perspective(PREFIX + ".perspective." + i, "Perspective " + i);
+            perspectives[i].setLayout(createLayout(i));
+            perspectives[i].setInitialSequence(createSequence());
+        }
+        return new PerspectiveModel(perspectives[0].getPersistentId(), perspectives[count-1].getPersistentId(), perspectives);
+    }
+
+    private static Layout createLayout(int seed) {
+        Layout layout = new Layout();
+        FloatingGroup group = new FloatingGroup(PREFIX + ".group." + seed);
+        group.setBounds(new Rectangle(40+seed, 30, 320, 240));
+
+        for(int i=0; i<DOCKABLES; i++) {
+            String id = getDockableId(i);
+            DockingState state = new DockingState(id);
+            state.setRegion(getRegion(i));
+            state.setSplitRatio(0.25f + (i%3)*0.25f);
+            if(i>0) {
+                state.setRelativeParentId(getDockableId((i-1)/2));
+            }
+
+            switch((i+seed)%4) {
+            case 0:
+                state.setFloatingGroup(group.getName());
+                group.addDockable(id);
+                break;
+            case 1:
+                state.setMinimizedConstraint(i%2==0? MinimizationManager.LEFT: MinimizationManager.BOTTOM);
+                break;
+            default:
+                state.setCenter(new Point(10*i, -5*i));
+                break;
+            }
+            state.setPath(createPath(i));
+            layout.setDockingState(id, state);
+        }
+        layout.addFloatingGroup(group);
+        layout.setRestorationLayout(createRestorationLayout());
+        return layout;
+    }
+
+    /**
+     * Nests one split per level of the dockable's depth in a binary tree, so
+     * later dockables get the longest paths.
+     */
+    private static DockingPath createPath(int index) {
+        DockingPath path = new DockingPath();
+        path.setRootPortId(PREFIX + ".root");
+        path.setTabbed(index%4==0);
+        if(index>0) {
+            path.setSiblingId(getDockableId(index-1));
+        }
+        int depth = 0;
+        for(int i=index; i>0; i=(i-1)/2) {
+            int orientation = depth%2==0? HORIZONTAL: VERTICAL;
+            int region = orientation==HORIZONTAL? (i%2==0? RIGHT: LEFT): (i%2==0? BOTTOM: TOP);
+            SplitNode node = new SplitNode(orientation, region, 0.5f - depth*0.05f, getDockableId((i-1)/2));
+            node.setDockingRegion(getRegion(i));
+            path.getNodes().add(node);
+            depth++;
+        }
+        return path;
+    }
+
+    private static DockingPortNode createRestorationLayout() {
+        DockingPortNode root = new DockingPortNode();
+        SplitNode split = new SplitNode(HORIZONTAL, LEFT, 0.3f, getDockableId(0));
+        split.setDockingRegion(WEST_REGION);
+        root.add(split);
+
+        split.add(createPortNode(0));
+        DockingPortNode right = new DockingPortNode();
+        SplitNode nested = new SplitNode(VERTICAL, TOP, 0.6f, getDockableId(1));
+        nested.setDockingRegion(NORTH_REGION);
+        nested.add(createPortNode(1));
+        nested.add(createPortNode(2));
+        right.add(nested);
+        split.add(right);
+        return root;
+    }
+
+    private static DockingPortNode createPortNode(int index) {
+        DockingPortNode port = new DockingPortNode();
+        DockableNode dockable = new DockableNode();
+        dockable.setDockableId(getDockableId(index));
+        port.add(dockable);
+        return port;
+    }
+
+    private static LayoutSequence createSequence() {
+        LayoutSequence sequence = new LayoutSequence();
+        sequence.add(dockables[0]);
+        sequence.add(dockables[1], dockables[0], EAST_REGION, 0.4f);
+        sequence.add(dockables[2], dockables[1], SOUTH_REGION, 0.6f);
+        return sequence;
+    }
+
+    private static String getRegion(int index) {
+        if(index%4==0) {
+            return CENTER_REGION;
+        }
+        return index%2==0? SOUTH_REGION: EAST_REGION;
+    }
+
+    private static String getDockableId(int index) {
+        return PREFIX + "." + index;
+    }
+
+    private static String toXml(PerspectiveModel model) throws Exception {
+        return new String(store(XMLPersister.newDefaultInstance(), model), "UTF-8");
+    }
+
+    private static byte[] store(Persister persister, PerspectiveModel model) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(persister.store(out, model));
+        return out.toByteArray();
+    }
+}
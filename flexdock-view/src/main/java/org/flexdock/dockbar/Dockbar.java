@@ -27,6 +27,7 @@ import javax.swing.*;
 import javax.swing.border.Border;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 
 
@@ -37,6 +38,7 @@ public class Dockbar extends JPanel {
     protected int orientation;
     protected DockbarManager manager;
     protected ArrayList mDocks = new ArrayList();
+    private HashMap labelsById = new HashMap();
 
     static {
         // make sure DockbarLabel is initialized
@@ -66,7 +68,7 @@ public class Dockbar extends JPanel {
         DockbarLabel label = getLabel(dockable);
 
         remove(label);
-        mDocks.remove(label);
+        removeLabel(label);
         getParent().validate();
         repaint();
     }
@@ -76,15 +78,51 @@ public class Dockbar extends JPanel {
             return null;
         }
 
+        // subclasses may have modified mDocks directly
+        if(labelsById.size()!=mDocks.size()) {
+            rebuildIndex();
+        }
+
+        DockbarLabel label = (DockbarLabel)labelsById.get(dockable.getPersistentId());
+        return label!=null && label.getDockable()==dockable? label: null;
+    }
+
+    protected void addLabel(DockbarLabel label) {
+        mDocks.add(label);
+        labelsById.put(label.getDockableId(), label);
+    }
+
+    protected void removeLabel(DockbarLabel label) {
+        if(label!=null && mDocks.remove(label)) {
+            labelsById.remove(label.getDockableId());
+        }
+    }
+
+    private void rebuildIndex() {
+        labelsById.clear();
         for (Iterator docks = mDocks.iterator(); docks.hasNext();) {
             DockbarLabel label = (DockbarLabel) docks.next();
+            labelsById.put(label.getDockableId(), label);
+        }
+    }
 
-            if (label.getDockable() == dockable) {
-                return label;
+    /**
+     * Checks that the label index agrees with the list of docked labels.
+     *
+     * @return {@code true} if every docked label can be looked up by its
+     *         dockable id, and nothing else can.
+     */
+    boolean isIndexConsistent() {
+        if(labelsById.size()!=mDocks.size()) {
+            return false;
+        }
+        for (Iterator docks = mDocks.iterator(); docks.hasNext();) {
+            DockbarLabel label = (DockbarLabel) docks.next();
+            if(labelsById.get(label.getDockableId())!=label) {
+                return false;
             }
-        } // for
-
-        return null;
+        }
+        return true;
     }
 
     public boolean contains(Dockable dockable) {
@@ -104,7 +142,7 @@ public class Dockbar extends JPanel {
 
         DockbarLabel newLabel = new DockbarLabel(dockable.getPersistentId(), getOrientation());
         add(newLabel);
-        mDocks.add(newLabel);
+        addLabel(newLabel);
 
         getParent().validate();
         repaint();
@@ -241,6 +241,10 @@ public class DockbarLabel extends JLabel implements MouseListener {
         return DockingManager.getDockable(dockingId);
     }
 
+    public String getDockableId() {
+        return dockingId;
+    }
+
     public int getOrientation() {
         Container cnt = getParent();
         if(cnt instanceof Dockbar) {
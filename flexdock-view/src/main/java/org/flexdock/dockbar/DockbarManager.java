@@ -44,6 +44,7 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.WeakHashMap;
 
 /**
@@ -53,6 +54,9 @@ import java.util.WeakHashMap;
  */
 public class DockbarManager {
     private static final WeakHashMap MANAGERS_BY_WINDOW = new WeakHashMap();
+    // dockable id -> WeakReference to the DockbarManager that minimized it.
+    // guarded by MANAGERS_BY_WINDOW.
+    private static final HashMap MANAGERS_BY_DOCKABLE = new HashMap();
     public static final Integer DOCKBAR_LAYER = new Integer(JLayeredPane.PALETTE_LAYER.intValue()-5);
     public static final int DEFAULT_EDGE = MinimizationManager.LEFT;
 
@@ -73,6 +77,7 @@ public class DockbarManager {
     private int activeEdge = MinimizationManager.UNSPECIFIED_LAYOUT_CONSTRAINT;
     private String activeDockableId;
     private boolean animating;
+    private ActivationQueue activationQueue;
     private boolean dragging;
 
 
@@ -164,14 +169,70 @@ public class DockbarManager {
         }
 
         synchronized(MANAGERS_BY_WINDOW) {
-            for(Iterator it=MANAGERS_BY_WINDOW.values().iterator(); it.hasNext();) {
+            WeakReference ref = (WeakReference)MANAGERS_BY_DOCKABLE.get(dockable.getPersistentId());
+            DockbarManager mgr = ref==null? null: (DockbarManager)ref.get();
+            return mgr!=null && mgr.isOwner(dockable)? mgr: null;
+        }
+    }
+
+    private static void setOwner(String dockableId, DockbarManager mgr) {
+        synchronized(MANAGERS_BY_WINDOW) {
+            if(mgr==null) {
+                MANAGERS_BY_DOCKABLE.remove(dockableId);
+            } else {
+                MANAGERS_BY_DOCKABLE.put(dockableId, new WeakReference(mgr));
+            }
+        }
+    }
+
+    private static void updateOwner(Dockable dockable) {
+        // another manager may still hold the dockable.  this is rare, so a
+        // scan is fine here.
+        synchronized(MANAGERS_BY_WINDOW) {
+            DockbarManager owner = null;
+            for(Iterator it=MANAGERS_BY_WINDOW.values().iterator(); it.hasNext() && owner==null;) {
                 DockbarManager mgr = (DockbarManager)it.next();
                 if(mgr.isOwner(dockable)) {
-                    return mgr;
+                    owner = mgr;
                 }
             }
+            setOwner(dockable.getPersistentId(), owner);
         }
-        return null;
+    }
+
+    /**
+     * Checks that the dockable lookup indexes agree with the dockbar contents
+     * of every {@code DockbarManager}.  Every minimized dockable must map to a
+     * manager that owns it, every owned dockable must map to a manager, and
+     * each dockbar's label index must match its labels.  This is checked
+     * whenever assertions are enabled, which is normally the case in tests.
+     *
+     * @return {@code true} if the indexes are consistent.
+     */
+    public static boolean isIndexConsistent() {
+        synchronized(MANAGERS_BY_WINDOW) {
+            for(Iterator it=MANAGERS_BY_DOCKABLE.entrySet().iterator(); it.hasNext();) {
+                Map.Entry entry = (Map.Entry)it.next();
+                DockbarManager mgr = (DockbarManager)((WeakReference)entry.getValue()).get();
+                if(mgr!=null && !mgr.dockables.containsKey(entry.getKey())) {
+                    return false;
+                }
+            }
+
+            for(Iterator it=MANAGERS_BY_WINDOW.values().iterator(); it.hasNext();) {
+                DockbarManager mgr = (DockbarManager)it.next();
+                for(Iterator ids=mgr.dockables.keySet().iterator(); ids.hasNext();) {
+                    if(!MANAGERS_BY_DOCKABLE.containsKey(ids.next())) {
+                        return false;
+                    }
+                }
+                if(!mgr.leftBar.isIndexConsistent() || !mgr.rightBar.isIndexConsistent()
+                        || !mgr.bottomBar.isIndexConsistent()) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     public static void windowChanged(Component newWindow) {
@@ -365,6 +426,15 @@ public class DockbarManager {
             return null;
         }
 
+        // check the edge the dockable was minimized to first
+        Integer edge = (Integer)dockables.get(dockable.getPersistentId());
+        if(edge!=null) {
+            Dockbar dockbar = getDockbar(edge.intValue());
+            if(dockbar.contains(dockable)) {
+                return dockbar;
+            }
+        }
+
         if(leftBar.contains(dockable)) {
             return leftBar;
         }
@@ -418,6 +488,8 @@ public class DockbarManager {
 
         // store the dockable id
         dockables.put(dockable.getPersistentId(), new Integer(edge));
+        setOwner(dockable.getPersistentId(), this);
+        assert isIndexConsistent();
 
         // send event notification
         DockbarEvent evt = new DockbarEvent(dockable, DockbarEvent.MINIMIZE_COMPLETED, edge);
@@ -479,6 +551,10 @@ public class DockbarManager {
             remove(dockable);
             // remove the dockable reference
             dockables.remove(dockable.getPersistentId());
+            if(getCurrent(dockable)==null) {
+                updateOwner(dockable);
+            }
+            assert isIndexConsistent();
         }
     }
 
@@ -640,8 +716,24 @@ public class DockbarManager {
             }
         };
 
-        ActivationQueue queue = new ActivationQueue(this, deactivation, updater1, activation, updater2);
-        queue.start();
+        final ActivationQueue queue = new ActivationQueue(this, deactivation, updater1, activation, updater2);
+        Runnable starter = new Runnable() {
+            @Override
+            public void run() {
+                // retarget any animation still in flight.  the new queue
+                // picks up from the current viewpane size.
+                if(activationQueue!=null) {
+                    activationQueue.cancel();
+                }
+                activationQueue = queue;
+                queue.run();
+            }
+        };
+        if(EventQueue.isDispatchThread()) {
+            starter.run();
+        } else {
+            EventQueue.invokeLater(starter);
+        }
     }
 
     public int getPreferredViewpaneSize() {
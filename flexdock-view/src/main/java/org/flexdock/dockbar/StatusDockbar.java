@@ -69,7 +69,7 @@ public class StatusDockbar extends Dockbar {
         DockbarLabel label = getLabel(dockable);
 
         labelPanel.remove(label);
-        mDocks.remove(label);
+        removeLabel(label);
         getParent().validate();
         repaint();
     }
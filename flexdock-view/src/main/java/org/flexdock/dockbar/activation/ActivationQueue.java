@@ -19,19 +19,26 @@
  */
 package org.flexdock.dockbar.activation;
 
+import java.awt.EventQueue;
+
 import org.flexdock.dockbar.DockbarManager;
 
 
 
 /**
+ * Runs a dockbar deactivation and activation in sequence on the event
+ * dispatch thread.
+ *
  * @author Christopher Butler
  */
-public class ActivationQueue extends Thread {
+public class ActivationQueue implements Runnable {
     private DockbarManager manager;
     private Animation deactivation;
     private Runnable postDeactivate;
     private Animation activation;
     private Runnable postActivate;
+    private boolean canceled;
+    private boolean finished;
 
     public ActivationQueue(DockbarManager mgr, Animation deactivation, Runnable r1, Animation activation, Runnable r2) {
         manager = mgr;
@@ -41,21 +48,80 @@ public class ActivationQueue extends Thread {
         this.postActivate = r2;
     }
 
+    /**
+     * Starts the sequence on the event dispatch thread.
+     */
+    public void start() {
+        if(EventQueue.isDispatchThread()) {
+            run();
+        } else {
+            EventQueue.invokeLater(this);
+        }
+    }
 
     @Override
     public void run() {
+        if(canceled) {
+            return;
+        }
+
         manager.setAnimating(true);
+        if(deactivation==null) {
+            deactivated();
+        } else {
+            deactivation.setNext(new Runnable() {
+                @Override
+                public void run() {
+                    deactivated();
+                }
+            });
+            deactivation.start();
+        }
+    }
+
+    /**
+     * Stops the sequence wherever it is.  Steps that have not yet run are
+     * skipped, so a subsequent queue can start from the current state.  Must
+     * be called on the event dispatch thread.
+     */
+    public void cancel() {
+        if(canceled || finished) {
+            return;
+        }
+
+        canceled = true;
         if(deactivation!=null) {
-            deactivation.run();
+            deactivation.cancel();
         }
-        postDeactivate.run();
         if(activation!=null) {
-            activation.run();
+            activation.cancel();
         }
-        postActivate.run();
         manager.setAnimating(false);
     }
 
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void deactivated() {
+        postDeactivate.run();
+        if(activation==null) {
+            activated();
+        } else {
+            activation.setNext(new Runnable() {
+                @Override
+                public void run() {
+                    activated();
+                }
+            });
+            activation.start();
+        }
+    }
 
+    private void activated() {
+        postActivate.run();
+        finished = true;
+        manager.setAnimating(false);
+    }
 
 }
@@ -19,77 +19,102 @@
  */
 package org.flexdock.dockbar.activation;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-
-import javax.swing.Timer;
-
 import org.flexdock.dockbar.DockbarManager;
 import org.flexdock.dockbar.ViewPane;
 
 /**
+ * Slides the dockbar {@code ViewPane} in or out.  The size of the viewpane
+ * is interpolated from the time elapsed since the animation started, and
+ * each frame only updates the viewpane bounds rather than revalidating the
+ * whole dockbar layout.  Frames are delivered by the shared
+ * {@code AnimationScheduler} on the event dispatch thread.
+ *
  * @author Christopher Butler
  */
-public class Animation implements Runnable, ActionListener {
-
-    private static final int ANIMATION_INTERVAL = 20;
-    private static final int TOTAL_FRAME_COUNT = 5;
+public class Animation {
+    /**
+     * System property holding the duration, in milliseconds, of a full
+     * slide-in or slide-out.
+     */
+    public static final String DURATION = "dockbar.animation.duration";
+    public static final int DEFAULT_DURATION = 100;
 
     private DockbarManager dockManager;
-    private Timer timer;
-    private float frameDelta;
-    private int frameCount;
     private boolean hiding;
     private Runnable next;
-    private Object lock;
+
+    private boolean running;
+    private long startTime;
+    private long duration;
+    private int startSize;
 
     public Animation(DockbarManager mgr, boolean hide) {
         dockManager = mgr;
-        timer = new Timer(ANIMATION_INTERVAL, this);
-        frameDelta = (100f/getTotalFrameCount())/100f;
         hiding = hide;
-        lock = new Object();
     }
 
-    @Override
-    public void run() {
-        timer.start();
-        sleep();
+    /**
+     * Starts sliding the viewpane from its current size.  If the viewpane is
+     * part way through another animation, this one picks up where the other
+     * left off and runs for a proportionally shorter time.  When finished,
+     * the {@code Runnable} returned by {@code getNext()} is run.  Must be
+     * called on the event dispatch thread.
+     */
+    public void start() {
+        int fullSize = dockManager.getPreferredViewpaneSize();
+        int currentSize = dockManager.getViewPane().getPrefSize();
+        if(currentSize==ViewPane.UNSPECIFIED_PREFERRED_SIZE) {
+            currentSize = hiding? fullSize: 0;
+        }
+
+        startSize = currentSize;
+        int distance = Math.abs(getEndSize(fullSize)-startSize);
+        long fullDuration = Integer.getInteger(DURATION, DEFAULT_DURATION).longValue()*1000000L;
+        duration = fullSize<=0? 0: Math.min(fullDuration, fullDuration*distance/fullSize);
+        startTime = System.nanoTime();
+        running = true;
+
+        dockManager.getViewPane().setPrefSize(startSize);
+        AnimationScheduler.getInstance().schedule(this);
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        resetViewpaneSize();
-        dockManager.revalidate();
-        if(frameCount==getTotalFrameCount()-1) {
-            timer.stop();
-            wakeUp();
-        } else {
-            frameCount++;
+    /**
+     * Stops the animation where it is, without running the
+     * {@code Runnable} returned by {@code getNext()}.
+     */
+    public void cancel() {
+        if(running) {
+            running = false;
+            AnimationScheduler.getInstance().unschedule(this);
         }
     }
 
-    private void resetViewpaneSize() {
-        ViewPane viewPane = dockManager.getViewPane();
-        int prefSize = dockManager.getPreferredViewpaneSize();
-
-        if(frameCount==0) {
-            prefSize = getStartSize(prefSize);
-        } else if(frameCount==getTotalFrameCount()-1) {
-            prefSize = getEndSize(prefSize);
-        } else {
-            int newSize = (int)(prefSize * (frameCount*frameDelta));
-            prefSize = hiding? prefSize-newSize: newSize;
+    public boolean isRunning() {
+        return running;
+    }
+
+    void update(long now) {
+        if(!running) {
+            return;
         }
 
-        viewPane.setPrefSize(prefSize);
-    }
+        float fraction = duration<=0? 1f: Math.min(1f, (now-startTime)/(float)duration);
+        int endSize = getEndSize(dockManager.getPreferredViewpaneSize());
+        int size = fraction>=1f? endSize: startSize + (int)((endSize-startSize)*fraction);
 
-    private int getStartSize(int prefSize) {
-        if(hiding) {
-            return prefSize;
+        ViewPane viewPane = dockManager.getViewPane();
+        viewPane.setPrefSize(size);
+        // only the viewpane bounds change between frames
+        dockManager.getLayout().layoutViewpane();
+        viewPane.validate();
+
+        if(fraction>=1f) {
+            running = false;
+            AnimationScheduler.getInstance().unschedule(this);
+            if(next!=null) {
+                next.run();
+            }
         }
-        return 0;
     }
 
     private int getEndSize(int prefSize) {
@@ -99,31 +124,10 @@ public class Animation implements Runnable, ActionListener {
         return prefSize;
     }
 
-    private int getTotalFrameCount() {
-        return TOTAL_FRAME_COUNT;
-    }
-
     public Runnable getNext() {
         return next;
     }
     public void setNext(Runnable next) {
         this.next = next;
     }
-
-    private void sleep() {
-        synchronized(lock) {
-            try {
-                lock.wait();
-            } catch(InterruptedException e) {
-                System.err.println("Exception: " +e.getMessage());
-                e.printStackTrace();
-            }
-        }
-    }
-
-    private void wakeUp() {
-        synchronized(lock) {
-            lock.notifyAll();
-        }
-    }
-}
\ No newline at end of file
+}
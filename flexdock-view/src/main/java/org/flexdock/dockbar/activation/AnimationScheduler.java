@@ -0,0 +1,129 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.dockbar.activation;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+
+import javax.swing.Timer;
+
+/**
+ * Drives all dockbar {@code Animations} from a single Swing {@code Timer} on
+ * the event dispatch thread.  Each frame asks every running animation to
+ * update itself for the current time, so animations run for the same
+ * duration regardless of how often frames actually get delivered.  The timer
+ * only runs while there are animations to drive.
+ * <p>
+ * All methods of this class must be called on the event dispatch thread.
+ */
+public class AnimationScheduler implements ActionListener {
+    /**
+     * System property holding the frame interval in milliseconds.
+     */
+    public static final String FRAME_INTERVAL = "dockbar.animation.interval";
+    public static final int DEFAULT_FRAME_INTERVAL = 15;
+
+    private static final AnimationScheduler SINGLETON = new AnimationScheduler();
+
+    private final ArrayList animations = new ArrayList();
+    private final Timer timer;
+
+    private long frameCount;
+    private long totalFrameTime;
+    private long maxFrameTime;
+
+    public static AnimationScheduler getInstance() {
+        return SINGLETON;
+    }
+
+    private AnimationScheduler() {
+        int interval = Integer.getInteger(FRAME_INTERVAL, DEFAULT_FRAME_INTERVAL).intValue();
+        timer = new Timer(Math.max(1, interval), this);
+        timer.setCoalesce(true);
+    }
+
+    void schedule(Animation animation) {
+        if(!animations.contains(animation)) {
+            animations.add(animation);
+        }
+        if(!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    void unschedule(Animation animation) {
+        animations.remove(animation);
+        if(animations.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    public boolean isRunning() {
+        return !animations.isEmpty();
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        long start = System.nanoTime();
+
+        // copy the list, since animations may finish and start others
+        // while we're iterating
+        Object[] running = animations.toArray();
+        for(int i=0; i<running.length; i++) {
+            Animation animation = (Animation)running[i];
+            if(animations.contains(animation)) {
+                animation.update(start);
+            }
+        }
+        if(animations.isEmpty()) {
+            timer.stop();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        frameCount++;
+        totalFrameTime += elapsed;
+        maxFrameTime = Math.max(maxFrameTime, elapsed);
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return the average time spent updating animations per frame, in microseconds
+     */
+    public long getAverageFrameTime() {
+        return frameCount==0? 0: totalFrameTime/frameCount/1000;
+    }
+
+    /**
+     * @return the longest time spent updating animations in one frame, in microseconds
+     */
+    public long getMaxFrameTime() {
+        return maxFrameTime/1000;
+    }
+
+    public void resetFrameCounts() {
+        frameCount = 0;
+        totalFrameTime = 0;
+        maxFrameTime = 0;
+    }
+}
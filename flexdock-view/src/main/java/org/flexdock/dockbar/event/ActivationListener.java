@@ -20,8 +20,10 @@
 package org.flexdock.dockbar.event;
 
 import java.awt.Point;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 
-
+import javax.swing.Timer;
 
 import org.flexdock.dockbar.DockbarManager;
 import org.flexdock.docking.Dockable;
@@ -32,6 +34,7 @@ import org.flexdock.util.Utilities;
  * @author Christopher Butler
  */
 public class ActivationListener {
+    private static final int DEACTIVATION_DELAY = 1000;
 
     private DockbarManager manager;
     private Deactivator deactivator;
@@ -41,6 +44,7 @@ public class ActivationListener {
 
     public ActivationListener(DockbarManager mgr) {
         manager = mgr;
+        deactivator = new Deactivator();
         setEnabled(true);
     }
 
@@ -78,10 +82,7 @@ public class ActivationListener {
         }
 
         mouseOver = true;
-        if(deactivator!=null) {
-            deactivator.setEnabled(false);
-        }
-        deactivator = null;
+        deactivator.stop();
     }
 
     public void mouseExited(Point mousePoint) {
@@ -91,9 +92,7 @@ public class ActivationListener {
 
         mouseOver = false;
         if(!isOverDockbars(mousePoint)) {
-            deactivator = new Deactivator(manager.getActiveDockableId());
-            deactivator.setEnabled(true);
-            deactivator.start();
+            deactivator.start(manager.getActiveDockableId());
         }
     }
 
@@ -122,33 +121,32 @@ public class ActivationListener {
         EventManager.dispatch(evt);
     }
 
-    private class Deactivator extends Thread {
+    /**
+     * Deactivates the dockbar shortly after the mouse leaves it, unless the
+     * mouse comes back first.  A single {@code Timer} is restarted on each
+     * exit rather than starting a thread every time.
+     */
+    private class Deactivator implements ActionListener {
+        private Timer timer;
         private String dockableId;
-        private boolean enabled;
 
-        private Deactivator(String id) {
-            dockableId = id;
-            enabled = true;
+        private Deactivator() {
+            timer = new Timer(DEACTIVATION_DELAY, this);
+            timer.setRepeats(false);
         }
 
-        private synchronized void setEnabled(boolean b) {
-            enabled = b;
+        private void start(String id) {
+            dockableId = id;
+            timer.restart();
         }
 
-        private synchronized boolean isEnabled() {
-            return enabled;
+        private void stop() {
+            timer.stop();
         }
 
         @Override
-        public void run() {
-            try {
-                Thread.sleep(1000);
-            } catch(InterruptedException e) {
-                System.err.println("Exception: " +e.getMessage());
-                e.printStackTrace();
-            }
-
-            if(isEnabled() && !Utilities.isChanged(dockableId, manager.getActiveDockableId()) &&
+        public void actionPerformed(ActionEvent e) {
+            if(!Utilities.isChanged(dockableId, manager.getActiveDockableId()) &&
                     !isViewpaneLocked()) {
                 manager.setActiveDockable((String)null);
             }
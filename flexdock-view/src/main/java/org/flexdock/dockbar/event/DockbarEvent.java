@@ -52,4 +52,9 @@ public class DockbarEvent extends Event {
     public void consume() {
         consumed = true;
     }
+
+    @Override
+    public boolean isSynchronous() {
+        return getEventType()==MINIMIZE_STARTED;
+    }
 }
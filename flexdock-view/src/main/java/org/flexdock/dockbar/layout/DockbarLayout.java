@@ -102,7 +102,7 @@ public class DockbarLayout {
         return (int)(rect.height*viewSize);
     }
 
-    protected void layoutViewpane() {
+    public void layoutViewpane() {
         ViewPane viewPane = manager.getViewPane();
         Dockable dockable = manager.getActiveDockable();
         if(dockable==null) {
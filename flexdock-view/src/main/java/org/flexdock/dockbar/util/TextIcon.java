@@ -18,11 +18,18 @@ CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFT
 OR THE USE OR OTHER DEALINGS IN THE SOFTWARE. */
 package org.flexdock.dockbar.util;
 
+import java.awt.AlphaComposite;
+import java.awt.Color;
 import java.awt.Component;
+import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
@@ -39,7 +46,16 @@ public class TextIcon implements Icon, PropertyChangeListener {
     public static final int ROTATE_LEFT    = 0x02;
     public static final int ROTATE_RIGHT   = 0x04;
 
+    /**
+     * System property that, when set to {@code true}, paints the text directly
+     * on every paint instead of from a cached image.
+     */
+    public static final String IMAGE_CACHE_DISABLED = "dockbar.texticon.cache.disabled";
+    private static final boolean CACHE_IMAGES = !Boolean.getBoolean(IMAGE_CACHE_DISABLED);
+
     private static final double NINETY_DEGREES = Math.toRadians(90.0);
+    private static final int SCALE_TRANSFORMS = AffineTransform.TYPE_TRANSLATION
+            | AffineTransform.TYPE_UNIFORM_SCALE | AffineTransform.TYPE_GENERAL_SCALE;
 
     // instance data
 
@@ -55,6 +71,15 @@ public class TextIcon implements Icon, PropertyChangeListener {
     private int       mDescent;
     private int       mRotation;
 
+    private Font        mMetricsFont;
+    private FontMetrics mMetrics;
+
+    // the rendered icon, and what it was rendered with
+    private BufferedImage mImage;
+    private Font          mImageFont;
+    private Color         mImageForeground;
+    private double        mImageScaleX;
+    private double        mImageScaleY;
 
     // constructor
 
@@ -144,12 +169,16 @@ public class TextIcon implements Icon, PropertyChangeListener {
         String prop = e.getPropertyName();
         if (prop.equals("font")) {
             recalcDimensions();
+        } else if (prop.equals("foreground")) {
+            mImage = null;
         }
     }
 
     // private
 
     private void recalcDimensions() {
+        mImage = null;
+
         int w = getIconWidth();
         int h = getIconHeight();
 
@@ -161,7 +190,12 @@ public class TextIcon implements Icon, PropertyChangeListener {
     }
 
     private void calcDimensions() {
-        FontMetrics fm = mComponent.getFontMetrics(mComponent.getFont());
+        Font font = mComponent.getFont();
+        if (mMetrics == null || isChanged(mMetricsFont, font)) {
+            mMetrics = mComponent.getFontMetrics(font);
+            mMetricsFont = font;
+        }
+        FontMetrics fm = mMetrics;
 
         mCharHeight = fm.getAscent() + fm.getDescent();
         mDescent    = fm.getDescent();
@@ -190,21 +224,77 @@ public class TextIcon implements Icon, PropertyChangeListener {
         return mHeight;
     }
 
+    /**
+     * Paints the icon from an image rendered at the device scale of the
+     * supplied {@code Graphics}.  The image is rendered again after the
+     * text, icon, rotation, font, foreground or scale changes.  If the
+     * {@code Graphics} is rotated or sheared, the icon is painted directly.
+     */
     @Override
     public void paintIcon(Component c, Graphics g, int x, int y) {
         Graphics2D g2d = (Graphics2D)g;
+        AffineTransform transform = g2d.getTransform();
+        if (!CACHE_IMAGES || (transform.getType() & ~SCALE_TRANSFORMS) != 0 || mWidth <= 0 || mHeight <= 0) {
+            paintText(c, g2d, x, y);
+            return;
+        }
+
+        Font font = c.getFont();
+        Color foreground = c.getForeground();
+        double scaleX = transform.getScaleX();
+        double scaleY = transform.getScaleY();
+        if (mImage == null || isChanged(mImageFont, font) || isChanged(mImageForeground, foreground)
+                || mImageScaleX != scaleX || mImageScaleY != scaleY) {
+            renderImage(c, scaleX, scaleY);
+            mImageFont = font;
+            mImageForeground = foreground;
+            mImageScaleX = scaleX;
+            mImageScaleY = scaleY;
+        }
+
+        if (scaleX == 1 && scaleY == 1) {
+            g2d.drawImage(mImage, x, y, null);
+        } else {
+            g2d.drawImage(mImage, x, y, mWidth, mHeight, null);
+        }
+    }
+
+    private void renderImage(Component c, double scaleX, double scaleY) {
+        int w = (int)Math.ceil(mWidth * scaleX);
+        int h = (int)Math.ceil(mHeight * scaleY);
+        if (mImage == null || mImage.getWidth() != w || mImage.getHeight() != h) {
+            // prefer the screen's own translucent format, so the image can
+            // be cached in video memory by accelerated pipelines
+            GraphicsConfiguration gc = c.getGraphicsConfiguration();
+            mImage = gc == null ? new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB)
+                     : gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        }
+
+        Graphics2D g2d = mImage.createGraphics();
+        try {
+            // clear out whatever was rendered before
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, w, h);
+            g2d.setComposite(AlphaComposite.SrcOver);
+
+            g2d.scale(scaleX, scaleY);
+            paintText(c, g2d, 0, 0);
+        } finally {
+            g2d.dispose();
+        }
+    }
 
+    private void paintText(Component c, Graphics2D g2d, int x, int y) {
         g2d.setColor(c.getForeground());
         g2d.setFont(c.getFont());
 
         if (mRotation == ROTATE_NONE) {
             if ( mIcon != null) {
                 x += mInset;
-                y += mInset;
 
                 int iconHeight = mIcon.getIconHeight();
 
-                mIcon.paintIcon(mComponent, g, x, y + (mHeight - 2 * mInset - iconHeight) / 2); // center vertically
+                mIcon.paintIcon(mComponent, g2d, x, y + mInset + (mHeight - 2 * mInset - iconHeight) / 2); // center vertically
 
                 x += mIconSpace + mIcon.getIconWidth();
             } // if
@@ -212,7 +302,7 @@ public class TextIcon implements Icon, PropertyChangeListener {
             Object renderingHint = g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-            g.drawString(mText, x, mHeight- mDescent - mInset);
+            g2d.drawString(mText, x, y + mHeight - mDescent - mInset);
 
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, renderingHint);
 
@@ -266,6 +356,7 @@ public class TextIcon implements Icon, PropertyChangeListener {
     }
 
     public void validate() {
+        mImage = null;
         calcDimensions();
     }
 }
\ No newline at end of file
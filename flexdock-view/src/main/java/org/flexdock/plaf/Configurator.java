@@ -19,6 +19,7 @@
  */
 package org.flexdock.plaf;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import org.flexdock.plaf.resources.ResourceHandler;
@@ -35,6 +36,20 @@ public final class Configurator implements XMLConstants {
     public static final String DEFAULT_PREFS_URI = "org/flexdock/plaf/flexdock-themes-default.xml";
     public static final String PREFS_URI = "flexdock-themes.xml";
 
+    private static final Object LOCK = new Object();
+    private static final PropertyDef[] NO_DEFS = new PropertyDef[0];
+
+    // the theme documents are parsed once.  named elements and flattened
+    // property definitions are cached per tag name.
+    private static boolean documentsLoaded;
+    private static Document defaultPrefs;
+    private static Document userPrefs;
+    private static final HashMap ELEMENTS_BY_TAG = new HashMap();
+    private static final HashMap DEFS_BY_TAG = new HashMap();
+
+    private static int documentLoadCount;
+    private static long documentLoadTime;
+
     private Configurator() {
         //does nothing
     }
@@ -47,19 +62,74 @@ public final class Configurator implements XMLConstants {
         return ResourceManager.getDocument(DEFAULT_PREFS_URI);
     }
 
+    /**
+     * Discards the parsed theme documents and everything derived from them,
+     * so that the next lookup reloads {@code flexdock-themes-default.xml} and
+     * {@code flexdock-themes.xml}.
+     */
+    public static void clearCache() {
+        synchronized(LOCK) {
+            documentsLoaded = false;
+            defaultPrefs = null;
+            userPrefs = null;
+            ELEMENTS_BY_TAG.clear();
+            DEFS_BY_TAG.clear();
+        }
+    }
+
+    /**
+     * @return the number of times the theme documents have been parsed.
+     */
+    public static int getDocumentLoadCount() {
+        synchronized(LOCK) {
+            return documentLoadCount;
+        }
+    }
+
+    /**
+     * @return the total time spent parsing the theme documents, in microseconds.
+     */
+    public static long getDocumentLoadTime() {
+        synchronized(LOCK) {
+            return documentLoadTime/1000;
+        }
+    }
+
+    private static void loadDocuments() {
+        if(documentsLoaded) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        defaultPrefs = loadDefaultPrefs();
+        userPrefs = loadUserPrefs();
+        documentLoadTime += System.nanoTime() - start;
+        documentLoadCount++;
+        documentsLoaded = true;
+    }
+
     public static HashMap getNamedElementsByTagName(String tagName) {
         if(isNull(tagName)) {
             return null;
         }
 
-        HashMap cache = new HashMap(256);
-        // load defaults
-        Document defaults = Configurator.loadDefaultPrefs();
-        loadNamedElementsByTagName(defaults, tagName, cache);
-        // overwrite/add with user prefs
-        Document user = Configurator.loadUserPrefs();
-        loadNamedElementsByTagName(user, tagName, cache);
+        synchronized(LOCK) {
+            // callers are free to modify the map they get back
+            return new HashMap(getCachedElements(tagName));
+        }
+    }
 
+    private static HashMap getCachedElements(String tagName) {
+        HashMap cache = (HashMap)ELEMENTS_BY_TAG.get(tagName);
+        if(cache==null) {
+            loadDocuments();
+            cache = new HashMap(256);
+            // load defaults
+            loadNamedElementsByTagName(defaultPrefs, tagName, cache);
+            // overwrite/add with user prefs
+            loadNamedElementsByTagName(userPrefs, tagName, cache);
+            ELEMENTS_BY_TAG.put(tagName, cache);
+        }
         return cache;
     }
 
@@ -89,89 +159,133 @@ public final class Configurator implements XMLConstants {
     }
 
     public static PropertySet[] getProperties(String tagName) {
-        HashMap map = getNamedElementsByTagName(tagName);
-        if(map==null) {
+        if(isNull(tagName)) {
             return new PropertySet[0];
         }
 
-        String[] names = (String[])map.keySet().toArray(new String[0]);
-        return getProperties(names, map);
+        String[] names;
+        synchronized(LOCK) {
+            names = (String[])getCachedElements(tagName).keySet().toArray(new String[0]);
+        }
+        return getProperties(names, tagName);
     }
 
     public static PropertySet getProperties(String name, String tagName) {
-        HashMap map = getNamedElementsByTagName(tagName);
-        if(map==null) {
+        if(isNull(tagName)) {
             return null;
         }
-        return getProperties(name, map);
+        return createPropertySet(name, getPropertyDefs(name, tagName));
     }
 
     public static PropertySet[] getProperties(String[] names, String tagName) {
-        HashMap map = names==null? null: getNamedElementsByTagName(tagName);
-        if(map==null) {
+        if(names==null || isNull(tagName)) {
             return new PropertySet[0];
         }
-        return getProperties(names, map);
+
+        PropertySet[] properties = new PropertySet[names.length];
+        for(int i=0; i<names.length; i++) {
+            properties[i] = getProperties(names[i], tagName);
+        }
+        return properties;
     }
 
     public static PropertySet[] getProperties(String[] names, HashMap cache) {
         PropertySet[] properties = new PropertySet[names.length];
         for(int i=0; i<names.length; i++) {
-            properties[i] = getProperties(names[i], cache);
+            properties[i] = createPropertySet(names[i], compile(names[i], cache, new HashMap()));
         }
         return properties;
     }
 
-    private static PropertySet getProperties(String elemName, HashMap cache) {
-        Element elem = isNull(elemName)? null: (Element)cache.get(elemName);
+    /**
+     * Returns the property definitions of the named element, with its
+     * {@code extends} and {@code inherits} chains already flattened in.
+     * Definitions are listed parent first, so applying them in order lets
+     * an element override what it inherits.  The result is computed once per
+     * element and cached.
+     */
+    private static PropertyDef[] getPropertyDefs(String name, String tagName) {
+        if(isNull(name)) {
+            return null;
+        }
+
+        synchronized(LOCK) {
+            HashMap defs = (HashMap)DEFS_BY_TAG.get(tagName);
+            if(defs==null) {
+                defs = new HashMap();
+                DEFS_BY_TAG.put(tagName, defs);
+            }
+            return compile(name, getCachedElements(tagName), defs);
+        }
+    }
+
+    private static PropertyDef[] compile(String elemName, HashMap elements, HashMap compiled) {
+        if(isNull(elemName)) {
+            return null;
+        }
+        if(compiled.containsKey(elemName)) {
+            return (PropertyDef[])compiled.get(elemName);
+        }
+
+        Element elem = (Element)elements.get(elemName);
         if(elem==null) {
+            compiled.put(elemName, null);
             return null;
         }
 
-        PropertySet set = new PropertySet();
-        set.setName(elemName);
+        ArrayList defs = new ArrayList();
 
         // load all the parent properties first, so we can add/overwrite our own later
         String parentName = elem.getAttribute(EXTENDS_KEY);
-        PropertySet parent = isNull(parentName)? null: getProperties(parentName, cache);
-        if(parent!=null) {
-            set.setAll(parent);
-        }
+        PropertyDef[] parent = isNull(parentName)? null: compile(parentName, elements, compiled);
+        addAll(defs, parent);
 
         // check to see if we're supposed to inherit from an overridden element
         if("true".equalsIgnoreCase(elem.getAttribute(INHERITS_KEY))) {
-            PropertySet overridden = getProperties(OVERRIDDEN_KEY + elemName, cache);
-            if(overridden!=null) {
-                set.setAll(overridden);
-            }
+            addAll(defs, compile(OVERRIDDEN_KEY + elemName, elements, compiled));
         }
 
-        // get the default handler name
-        String propertyHandlerName = getPropertyHandlerName(elem);
-
         NodeList list = elem.getElementsByTagName(PROPERTY_KEY);
         int len = list.getLength();
         for(int i=0; i<len; i++) {
-            elem = (Element)list.item(i);
-            String key = elem.getAttribute(NAME_KEY);
+            Element prop = (Element)list.item(i);
+            String key = prop.getAttribute(NAME_KEY);
             if(!isNull(key)) {
-                String value = elem.getAttribute(VALUE_KEY);
-                String handler = elem.getAttribute(HANDLER_KEY);
-                Object resource = getResource(value, handler, propertyHandlerName);
-                if(resource!=null) {
-                    set.setProperty(key, resource);
-                }
+                defs.add(new PropertyDef(key, prop.getAttribute(VALUE_KEY), prop.getAttribute(HANDLER_KEY), elem));
             }
         }
-        return set;
+
+        PropertyDef[] result = defs.isEmpty()? NO_DEFS: (PropertyDef[])defs.toArray(new PropertyDef[defs.size()]);
+        compiled.put(elemName, result);
+        return result;
     }
 
-    private static String getPropertyHandlerName(Element elem) {
-        String handlerName = elem.getAttribute(PROP_HANDLER_KEY);
-        if(isNull(handlerName)) {
-            handlerName = ResourceHandlerFactory.getPropertyHandler(elem.getTagName());
+    private static void addAll(ArrayList list, PropertyDef[] defs) {
+        if(defs!=null) {
+            for(int i=0; i<defs.length; i++) {
+                list.add(defs[i]);
+            }
+        }
+    }
+
+    private static PropertySet createPropertySet(String elemName, PropertyDef[] defs) {
+        if(defs==null) {
+            return null;
+        }
+
+        PropertySet set = new PropertySet();
+        set.setName(elemName);
+
+        // resources are created here, not when the definitions are compiled,
+        // so each caller gets its own instances from the current handlers
+        for(int i=0; i<defs.length; i++) {
+            PropertyDef def = defs[i];
+            Object resource = getResource(def.value, def.handler, def.getDefaultHandlerName());
+            if(resource!=null) {
+                set.setProperty(def.key, resource);
+            }
         }
-        return isNull(handlerName)? null: handlerName;
+        return set;
     }
 
     public static Object getResource(String stringValue, String currentHandlerName, String defaultHandlerName) {
@@ -192,4 +306,30 @@ public final class Configurator implements XMLConstants {
     public static boolean isNull(String data) {
         return data == null || data.trim().length() == 0;
     }
+
+    private static final class PropertyDef {
+        private final String key;
+        private final String value;
+        private final String handler;
+        private final String ownerHandler;
+        private final String ownerTag;
+
+        private PropertyDef(String key, String value, String handler, Element owner) {
+            this.key = key;
+            this.value = value;
+            this.handler = handler;
+            this.ownerHandler = owner.getAttribute(PROP_HANDLER_KEY);
+            this.ownerTag = owner.getTagName();
+        }
+
+        private String getDefaultHandlerName() {
+            // resolved at lookup time, since the handler factory may still
+            // be initializing when the definitions are compiled
+            String handlerName = ownerHandler;
+            if(isNull(handlerName)) {
+                handlerName = ResourceHandlerFactory.getPropertyHandler(ownerTag);
+            }
+            return isNull(handlerName)? null: handlerName;
+        }
+    }
 }
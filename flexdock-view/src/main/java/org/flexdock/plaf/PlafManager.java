@@ -20,6 +20,7 @@
 package org.flexdock.plaf;
 
 import org.flexdock.plaf.mappings.PlafMappingFactory;
+import org.flexdock.plaf.resources.paint.StripCache;
 import org.flexdock.plaf.theme.Theme;
 import org.flexdock.plaf.theme.UIFactory;
 import org.flexdock.util.RootWindow;
@@ -106,6 +107,9 @@ public class PlafManager {
     public static void installPreferredTheme(boolean update) {
         Theme theme = getPreferredTheme();
 
+        // prerendered painter backgrounds belong to the old theme
+        StripCache.getInstance().clear();
+
         UI_DEFAULTS.clear();
         setProperty(View.class, theme.getViewUI());
         setProperty(Titlebar.class, theme.getTitlebarUI());
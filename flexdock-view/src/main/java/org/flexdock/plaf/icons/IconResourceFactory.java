@@ -61,6 +61,22 @@ public class IconResourceFactory implements XMLConstants {
     private static final HashMap RESOURCE_MAP_CACHE = new HashMap();
     private static final HashSet BAD_RESOURCE_NAMES = new HashSet();
 
+    /**
+     * Discards the cached icon resources, so that the next lookup loads them
+     * again from the theme configuration.
+     */
+    public static void clearCache() {
+        synchronized(RESOURCE_CACHE) {
+            RESOURCE_CACHE.clear();
+        }
+        synchronized(RESOURCE_MAP_CACHE) {
+            RESOURCE_MAP_CACHE.clear();
+        }
+        synchronized(BAD_RESOURCE_NAMES) {
+            BAD_RESOURCE_NAMES.clear();
+        }
+    }
+
     public static IconMap getIconMap(String name) {
         if(Configurator.isNull(name) || BAD_RESOURCE_NAMES.contains(name)) {
             return null;
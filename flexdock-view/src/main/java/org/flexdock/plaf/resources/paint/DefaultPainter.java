@@ -21,6 +21,8 @@ package org.flexdock.plaf.resources.paint;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JComponent;
 import javax.swing.UIManager;
@@ -43,6 +45,65 @@ public class DefaultPainter implements Painter {
 
     }
 
+    /**
+     * Paints the area from {@code dx1} to {@code dx2} and {@code dy1} to
+     * {@code dy2} with the background strip rendered by
+     * {@code paintStrip()}.  The strip is taken from the {@code StripCache},
+     * and only rendered if it isn't cached yet.  {@code width} is the
+     * full width the background is laid out for.
+     */
+    protected void paintCachedStrip(Graphics g, int width, boolean active, int dx1, int dy1, int dx2, int dy2) {
+        if(width<=0 || dx2<=dx1 || dy2<=dy1) {
+            return;
+        }
+
+        int stripWidth = StripCache.getStripWidth(width);
+        Color inactiveColor = getBackgroundColorInactive();
+        Color activeColor = getBackgroundColorActive();
+        StripKey key = new StripKey(getClass(), stripWidth, active, inactiveColor, activeColor, getStripVariant());
+        StripCache cache = StripCache.getInstance();
+        BufferedImage strip = cache.get(key);
+        if(strip==null) {
+            // opaque strips blit considerably faster
+            boolean opaque = isOpaque(inactiveColor) && isOpaque(activeColor);
+            strip = new BufferedImage(stripWidth, 1, opaque? BufferedImage.TYPE_INT_RGB: BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = strip.createGraphics();
+            try {
+                paintStrip(g2, stripWidth, active);
+            } finally {
+                g2.dispose();
+            }
+            cache.put(key, strip);
+        }
+
+        // map the destination columns onto the (possibly wider) strip
+        int sx1 = dx1 * stripWidth / width;
+        int sx2 = dx2 * stripWidth / width;
+        g.drawImage(strip, dx1, dy1, dx2, dy2, sx1, 0, Math.max(sx2, sx1+1), 1, null);
+    }
+
+    private static boolean isOpaque(Color c) {
+        return c==null || c.getAlpha()==255;
+    }
+
+    /**
+     * Renders a one pixel high background strip of the specified width for
+     * {@code paintCachedStrip()}.
+     */
+    protected void paintStrip(Graphics2D g, int width, boolean active) {
+        g.setColor(getBackgroundColor(active));
+        g.fillRect(0, 0, width, 1);
+    }
+
+    /**
+     * Returns any painter settings other than the background colors that
+     * affect what {@code paintStrip()} renders.  These are part of the
+     * strip's cache key.
+     */
+    protected Object getStripVariant() {
+        return null;
+    }
+
     protected Color getBackgroundColor(boolean active) {
         return active ? getBackgroundColorActive() :  getBackgroundColorInactive();
     }
@@ -71,4 +132,50 @@ public class DefaultPainter implements Painter {
         this.painterResource = painterResource;
     }
 
-}
\ No newline at end of file
+    private static final class StripKey {
+        private final Class painterClass;
+        private final int width;
+        private final boolean active;
+        private final Color inactiveColor;
+        private final Color activeColor;
+        private final Object variant;
+        private final int hash;
+
+        private StripKey(Class painterClass, int width, boolean active, Color inactiveColor, Color activeColor, Object variant) {
+            this.painterClass = painterClass;
+            this.width = width;
+            this.active = active;
+            this.inactiveColor = inactiveColor;
+            this.activeColor = activeColor;
+            this.variant = variant;
+
+            int h = painterClass.hashCode();
+            h = h*31 + width;
+            h = h*31 + (active? 1: 0);
+            h = h*31 + (inactiveColor==null? 0: inactiveColor.hashCode());
+            h = h*31 + (activeColor==null? 0: activeColor.hashCode());
+            h = h*31 + (variant==null? 0: variant.hashCode());
+            hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof StripKey)) {
+                return false;
+            }
+            StripKey other = (StripKey)obj;
+            return painterClass==other.painterClass && width==other.width && active==other.active
+                   && equals(inactiveColor, other.inactiveColor) && equals(activeColor, other.activeColor)
+                   && equals(variant, other.variant);
+        }
+
+        private static boolean equals(Object o1, Object o2) {
+            return o1==null? o2==null: o1.equals(o2);
+        }
+    }
+}
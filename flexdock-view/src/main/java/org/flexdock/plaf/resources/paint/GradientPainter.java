@@ -38,6 +38,12 @@ public class GradientPainter extends DefaultPainter {
 
     @Override
     public void paint(Graphics g, int width, int height, boolean active, JComponent titlebar) {
+        // the gradient only varies horizontally, so draw it from a cached strip
+        paintCachedStrip(g, width, active, 1, 1, width, height - 1);
+    }
+
+    @Override
+    protected void paintStrip(Graphics2D g2, int width, boolean active) {
         int mid = width / 2;
 
         Color backgroundColor = getBackgroundColor(active);
@@ -55,29 +61,32 @@ public class GradientPainter extends DefaultPainter {
 
         //         fill up the whole width if we're active
         if (active) {
-            firstHalf = new GradientPaint(0, height, gradStartColor, mid, height, gradMidColor);
-            secondHalf = new GradientPaint(mid, height, gradMidColor, width, height, gradEndColor);
+            firstHalf = new GradientPaint(0, 0, gradStartColor, mid, 0, gradMidColor);
+            secondHalf = new GradientPaint(mid, 0, gradMidColor, width, 0, gradEndColor);
         } else {
             // otherwise, fill up the center part and draw an outline
-            if (useGrayScale(titlebar)) {
-                firstHalf = new GradientPaint(0, height, SwingUtility.grayScale(gradMidColor).brighter(), mid, height, SwingUtility.grayScale(backgroundColor));
-                secondHalf = new GradientPaint(mid, height, SwingUtility.grayScale(backgroundColor), width, height, SwingUtility.grayScale(gradEndColor).brighter());
+            if (useGrayScale()) {
+                firstHalf = new GradientPaint(0, 0, SwingUtility.grayScale(gradMidColor).brighter(), mid, 0, SwingUtility.grayScale(backgroundColor));
+                secondHalf = new GradientPaint(mid, 0, SwingUtility.grayScale(backgroundColor), width, 0, SwingUtility.grayScale(gradEndColor).brighter());
 
             } else {
-                firstHalf = new GradientPaint(0, height, backgroundColor, mid, height, backgroundColor);
-                secondHalf = new GradientPaint(mid, height, backgroundColor, width, height, backgroundColor);
+                firstHalf = new GradientPaint(0, 0, backgroundColor, mid, 0, backgroundColor);
+                secondHalf = new GradientPaint(mid, 0, backgroundColor, width, 0, backgroundColor);
             }
         }
 
-        Graphics2D g2 = (Graphics2D) g;
         g2.setPaint(firstHalf);
-        g2.fillRect(1, 1, mid, height - 2);
+        g2.fillRect(0, 0, mid, 1);
         g2.setPaint(secondHalf);
-        g2.fillRect(mid, 1, width, height - 2);
+        g2.fillRect(mid, 0, width - mid, 1);
     }
 
+    @Override
+    protected Object getStripVariant() {
+        return useGrayScale()? Boolean.TRUE: Boolean.FALSE;
+    }
 
-    private boolean useGrayScale(JComponent titlebar) {
+    private boolean useGrayScale() {
         return painterResource.getInt( GRAYSCALE) == 1;
     }
 
@@ -0,0 +1,122 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.plaf.resources.paint;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of prerendered painter backgrounds.
+ * Painters whose background only varies horizontally render it once into a
+ * one pixel high strip, which is then stretched over the paint area with
+ * {@code drawImage}.  Strip widths are rounded up to a multiple of
+ * {@code BUCKET_SIZE}, so resizing a titlebar by a few pixels reuses the
+ * same strip.
+ * <p>
+ * The cache is cleared whenever a theme is installed, which also happens
+ * when the look and feel changes.
+ */
+public class StripCache {
+    /**
+     * System property holding the cache's memory limit, in kilobytes.
+     */
+    public static final String MEMORY_LIMIT = "flexdock.painter.cache.limit";
+    public static final int DEFAULT_MEMORY_LIMIT = 1024;
+    public static final int BUCKET_SIZE = 16;
+
+    private static final StripCache SINGLETON = new StripCache();
+
+    private final LinkedHashMap strips = new LinkedHashMap(32, 0.75f, true);
+    private long memoryLimit;
+    private long memoryUsage;
+    private long hits;
+    private long misses;
+
+    public static StripCache getInstance() {
+        return SINGLETON;
+    }
+
+    private StripCache() {
+        memoryLimit = Integer.getInteger(MEMORY_LIMIT, DEFAULT_MEMORY_LIMIT).longValue()*1024;
+    }
+
+    public static int getStripWidth(int width) {
+        return (width + BUCKET_SIZE - 1) / BUCKET_SIZE * BUCKET_SIZE;
+    }
+
+    public synchronized BufferedImage get(Object key) {
+        BufferedImage strip = (BufferedImage)strips.get(key);
+        if(strip==null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return strip;
+    }
+
+    public synchronized void put(Object key, BufferedImage strip) {
+        long size = sizeOf(strip);
+        if(size>memoryLimit) {
+            return;
+        }
+
+        Object old = strips.put(key, strip);
+        if(old!=null) {
+            memoryUsage -= sizeOf((BufferedImage)old);
+        }
+        memoryUsage += size;
+
+        for(Iterator it=strips.entrySet().iterator(); memoryUsage>memoryLimit && it.hasNext();) {
+            Map.Entry entry = (Map.Entry)it.next();
+            if(entry.getKey().equals(key)) {
+                continue;
+            }
+            memoryUsage -= sizeOf((BufferedImage)entry.getValue());
+            it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        strips.clear();
+        memoryUsage = 0;
+    }
+
+    public synchronized int size() {
+        return strips.size();
+    }
+
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private static long sizeOf(BufferedImage strip) {
+        return (long)strip.getWidth() * strip.getHeight() * 4;
+    }
+}
@@ -69,6 +69,10 @@ public class TitlebarUI extends FlexViewComponentUI {
     protected Object antialiasing;
     protected int defaultHeight = MINIMUM_HEIGHT;
 
+    // scratch rectangles reused while painting, which only happens on the EDT
+    private final Rectangle paintRectBuffer = new Rectangle();
+    private final Rectangle iconRectBuffer = new Rectangle();
+
 
     @Override
     public void installUI(JComponent c) {
@@ -103,21 +107,27 @@ public class TitlebarUI extends FlexViewComponentUI {
     }
 
     protected void paintBackground(Graphics g, Titlebar titlebar) {
-        Rectangle paintArea = getPaintRect(titlebar);
+        Rectangle paintArea = getPaintRect(titlebar, paintRectBuffer);
         g.translate(paintArea.x, paintArea.y);
         painter.paint(g, paintArea.width, paintArea.height, titlebar.isActive(), titlebar);
         g.translate(-paintArea.x, -paintArea.y);
     }
 
     protected Rectangle getPaintRect(Titlebar titlebar) {
+        return getPaintRect(titlebar, new Rectangle());
+    }
+
+    protected Rectangle getPaintRect(Titlebar titlebar, Rectangle rv) {
         if (getInsets() == null) {
-            return new Rectangle(0, 0, titlebar.getWidth(), titlebar.getHeight());
+            rv.setBounds(0, 0, titlebar.getWidth(), titlebar.getHeight());
+            return rv;
         }
 
         Insets paintInsets = getInsets();
-        return new Rectangle(paintInsets.left, paintInsets.top,
-                             (titlebar.getWidth() - paintInsets.right - paintInsets.left), (titlebar.getHeight()
-                                     - paintInsets.bottom - paintInsets.top));
+        rv.setBounds(paintInsets.left, paintInsets.top,
+                     (titlebar.getWidth() - paintInsets.right - paintInsets.left), (titlebar.getHeight()
+                             - paintInsets.bottom - paintInsets.top));
+        return rv;
     }
 
     protected void paintTitle(Graphics g, Titlebar titlebar) {
@@ -130,8 +140,8 @@ public class TitlebarUI extends FlexViewComponentUI {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
 
         g2.setFont(titlebar.getFont());
-        Rectangle iconRect = getIconRect(titlebar);
-        Rectangle paintRect = getPaintRect(titlebar);
+        Rectangle paintRect = getPaintRect(titlebar, paintRectBuffer);
+        Rectangle iconRect = getIconRect(titlebar, paintRect, iconRectBuffer);
 
         int x = getTextLocation(iconRect);
 
@@ -163,23 +173,26 @@ public class TitlebarUI extends FlexViewComponentUI {
         }
 
         Icon icon = titlebar.getIcon();
-        Rectangle r = getIconRect(titlebar);
+        Rectangle paintRect = getPaintRect(titlebar, paintRectBuffer);
+        Rectangle r = getIconRect(titlebar, paintRect, iconRectBuffer);
 
-        Rectangle paintRect = getPaintRect(titlebar);
         g.translate(paintRect.x, paintRect.y);
         icon.paintIcon(titlebar, g, r.x, r.y);
         g.translate(-paintRect.x, -paintRect.y);
     }
 
     protected Rectangle getIconRect(Titlebar titlebar) {
+        return getIconRect(titlebar, getPaintRect(titlebar), new Rectangle());
+    }
+
+    protected Rectangle getIconRect(Titlebar titlebar, Rectangle paintRect, Rectangle rv) {
         Icon icon = titlebar.getIcon();
-        Rectangle r = new Rectangle(0, 0, 0, 0);
+        Rectangle r = rv;
+        r.setBounds(0, 0, 0, 0);
         if (icon == null) {
             return r;
         }
 
-        Rectangle paintRect = getPaintRect(titlebar);
-
         r.x = getLeftIconMargin();
         r.width = icon.getIconWidth();
         r.height = icon.getIconHeight();
@@ -198,7 +211,7 @@ public class TitlebarUI extends FlexViewComponentUI {
     protected void paintBorder(Graphics g, Titlebar titlebar) {
         Border border = getBorder(titlebar);
         if (border != null) {
-            Rectangle rectangle = getPaintRect(titlebar);
+            Rectangle rectangle = getPaintRect(titlebar, paintRectBuffer);
             g.translate(rectangle.x, rectangle.y);
             border.paintBorder(titlebar, g, 0, 0, rectangle.width, rectangle.height);
             g.translate(-rectangle.x, -rectangle.y);
@@ -72,6 +72,25 @@ public class UIFactory implements XMLConstants {
 
 
 
+    /**
+     * Discards the cached themes and UI delegates, so that the next lookup
+     * builds them again from the theme configuration.
+     */
+    public static void clearCache() {
+        synchronized(THEME_UI_CACHE) {
+            THEME_UI_CACHE.clear();
+        }
+        synchronized(VIEW_UI_CACHE) {
+            VIEW_UI_CACHE.clear();
+        }
+        synchronized(TITLEBAR_UI_CACHE) {
+            TITLEBAR_UI_CACHE.clear();
+        }
+        synchronized(BUTTON_UI_CACHE) {
+            BUTTON_UI_CACHE.clear();
+        }
+    }
+
     public static Theme getTheme(String name) {
         if(Configurator.isNull(name)) {
             return null;
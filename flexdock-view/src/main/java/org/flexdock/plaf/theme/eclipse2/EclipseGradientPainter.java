@@ -34,6 +34,12 @@ public class EclipseGradientPainter extends DefaultPainter {
 
     @Override
     public void paint(Graphics g, int width, int height, boolean active, JComponent titlebar) {
+        // the gradient only varies horizontally, so draw it from a cached strip
+        paintCachedStrip(g, width, active, 0, 0, width, height);
+    }
+
+    @Override
+    protected void paintStrip(Graphics2D g2, int width, boolean active) {
         float center = width / 1.3f;
 
         GradientPaint firstHalf;
@@ -43,8 +49,7 @@ public class EclipseGradientPainter extends DefaultPainter {
             firstHalf = new GradientPaint(0, 0, getBackgroundColorInactive(), center, 0, getBackgroundColorInactive());
         }
 
-        Graphics2D g2 = (Graphics2D) g;
         g2.setPaint(firstHalf);
-        g2.fillRect(0, 0, width, height);
+        g2.fillRect(0, 0, width, 1);
     }
 }
@@ -20,6 +20,7 @@
 package org.flexdock.view;
 
 import org.flexdock.docking.*;
+import org.flexdock.docking.defaults.ComponentPool;
 import org.flexdock.docking.defaults.DefaultDockingStrategy;
 import org.flexdock.docking.event.DockingEvent;
 import org.flexdock.docking.event.DockingListener;
@@ -293,7 +294,11 @@ public class View extends JComponent implements Dockable, DockingConstants {
         return new DefaultDockingStrategy() {
             @Override
             protected DockingPort createDockingPortImpl(DockingPort base) {
-                return new Viewport();
+                Viewport port = (Viewport) ComponentPool.getInstance().acquire(Viewport.class);
+                if (port == null) {
+                    port = (Viewport) ComponentPool.getInstance().register(new Viewport());
+                }
+                return port;
             }
         };
     }
@@ -0,0 +1,184 @@
+/*
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.flexdock.dockbar;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.EventQueue;
+
+import javax.swing.JInternalFrame;
+
+import org.flexdock.docking.Dockable;
+import org.flexdock.docking.DockingConstants;
+import org.flexdock.docking.DockingManager;
+import org.flexdock.docking.state.MinimizationManager;
+import org.flexdock.perspective.Perspective;
+import org.flexdock.perspective.PerspectiveManager;
+import org.flexdock.util.RootWindow;
+import org.flexdock.view.View;
+import org.flexdock.view.Viewport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the dockable-to-manager index kept by {@code DockbarManager}
+ * follows minimize and restore across two windows.  Each manager is given a
+ * {@code RootWindow} around a {@code JInternalFrame}, which has a layered pane
+ * for the dockbars but needs no display, so these tests also run headless.
+ * Minimizing records the {@code DockingState} of each view, which needs a
+ * current perspective to live in.
+ */
+public class DockbarManagerIndexTest {
+    private static final String PERSPECTIVE = "dockbar.index";
+    private static int instance;
+
+    private JInternalFrame frameA;
+    private JInternalFrame frameB;
+    private RootWindow windowA;
+    private RootWindow windowB;
+    private Viewport portA;
+    private Viewport portB;
+    private DockbarManager managerA;
+    private DockbarManager managerB;
+    private View viewA;
+    private View viewB;
+
+    @Before
+    public void setUp() throws Exception {
+        final int id = instance++;
+        onEdt(new Runnable() {
+            @Override
+            public void run() {
+                // go through the DockingManager so that it is set up before
+                // the PerspectiveManager registers its listeners
+                PerspectiveManager perspectives = (PerspectiveManager)DockingManager.getLayoutManager();
+                perspectives.add(new Perspective(PERSPECTIVE, "Dockbar Index"));
+                perspectives.setCurrentPerspective(PERSPECTIVE);
+
+                portA = new Viewport();
+                portB = new Viewport();
+                frameA = createFrame("A", portA);
+                frameB = createFrame("B", portB);
+                windowA = new RootWindow(frameA) {};
+                windowB = new RootWindow(frameB) {};
+                managerA = DockbarManager.getInstance(windowA);
+                managerB = DockbarManager.getInstance(windowB);
+
+                viewA = new View("dockbar.index.a" + id, "A");
+                viewB = new View("dockbar.index.b" + id, "B");
+                // through the DockingManager, so the views get a DockingState
+                DockingManager.dock((Dockable)viewA, portA, DockingConstants.CENTER_REGION);
+                DockingManager.dock((Dockable)viewB, portB, DockingConstants.CENTER_REGION);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        onEdt(new Runnable() {
+            @Override
+            public void run() {
+                managerA.remove(viewA);
+                managerB.remove(viewB);
+                frameA.dispose();
+                frameB.dispose();
+
+                PerspectiveManager perspectives = PerspectiveManager.getInstance();
+                perspectives.setCurrentPerspective(PerspectiveManager.EMPTY_PERSPECTIVE);
+                perspectives.remove(PERSPECTIVE);
+            }
+        });
+    }
+
+    @Test
+    public void minimizeTracksOwningManager() throws Exception {
+        onEdt(new Runnable() {
+            @Override
+            public void run() {
+                managerA.minimize(viewA, MinimizationManager.LEFT);
+                managerB.minimize(viewB, MinimizationManager.BOTTOM);
+            }
+        });
+
+        assertTrue(DockbarManager.isIndexConsistent());
+        assertSame(managerA, DockbarManager.getCurrent(viewA));
+        assertSame(managerB, DockbarManager.getCurrent(viewB));
+        assertSame(managerA.getLeftBar(), managerA.getDockbar(viewA));
+        assertSame(managerB.getBottomBar(), managerB.getDockbar(viewB));
+        assertNull(managerB.getDockbar(viewA));
+    }
+
+    @Test
+    public void restoreClearsOnlyRestoredDockable() throws Exception {
+        onEdt(new Runnable() {
+            @Override
+            public void run() {
+                managerA.minimize(viewA, MinimizationManager.RIGHT);
+                managerB.minimize(viewB, MinimizationManager.RIGHT);
+                managerA.restore(viewA);
+            }
+        });
+
+        assertTrue(DockbarManager.isIndexConsistent());
+        assertNull(DockbarManager.getCurrent(viewA));
+        assertSame(managerB, DockbarManager.getCurrent(viewB));
+
+        onEdt(new Runnable() {
+            @Override
+            public void run() {
+                managerB.restore(viewB);
+            }
+        });
+
+        assertTrue(DockbarManager.isIndexConsistent());
+        assertNull(DockbarManager.getCurrent(viewB));
+    }
+
+    @Test
+    public void minimizeAgainAfterRestore() throws Exception {
+        onEdt(new Runnable() {
+            @Override
+            public void run() {
+                managerA.minimize(viewA, MinimizationManager.LEFT);
+                managerA.restore(viewA);
+                managerA.minimize(viewA, MinimizationManager.BOTTOM);
+            }
+        });
+
+        assertTrue(DockbarManager.isIndexConsistent());
+        assertSame(managerA, DockbarManager.getCurrent(viewA));
+        assertNull(DockbarManager.getCurrent(viewB));
+    }
+
+    private static JInternalFrame createFrame(String title, Viewport port) {
+        JInternalFrame frame = new JInternalFrame(title);
+        frame.getContentPane().add(port);
+        frame.setSize(400, 300);
+        frame.validate();
+        return frame;
+    }
+
+    private static void onEdt(Runnable r) throws Exception {
+        EventQueue.invokeAndWait(r);
+    }
+}